@@ -1,11 +1,16 @@
 package com.focussphere;
 
 import com.focussphere.components.*;
+import com.focussphere.db.AsyncDatabase;
+import com.focussphere.db.AutosaveService;
 import com.focussphere.db.DatabaseManager;
+import com.focussphere.db.WriteBehindQueue;
+import com.focussphere.model.SearchResult;
 import com.focussphere.views.*;
 
 import javafx.animation.*;
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.geometry.*;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
@@ -14,18 +19,28 @@ import javafx.scene.layout.*;
 import javafx.stage.Stage;
 import javafx.util.Duration;
 
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
 public class App extends Application {
 
+    private static final Logger LOG = Logger.getLogger(App.class.getName());
+
     private static App instance;
     private Stage primaryStage;
     private BorderPane root;
     private StackPane contentArea;
     private StackPane rootStack;
+    private VBox loadingScreen;
+    private long startNanos;
 
     private Sidebar sidebar;
     private HeaderBar headerBar;
     private PomodoroWidget pomodoroWidget;
 
+    // Built on first navigation
     private DashboardView dashboardView;
     private TasksView tasksView;
     private NotesView notesView;
@@ -38,47 +53,21 @@ public class App extends Application {
     private String currentView = "Dashboard";
     private String userName = "User";
 
+    /**
+     * Shows the window with only the loading screen, opens the database and
+     * reads settings off the FX thread, then builds the shell and the
+     * dashboard. The loading screen goes once that first view has been laid
+     * out. Each phase is logged with its time since launch.
+     */
     @Override
     public void start(Stage stage) {
+        startNanos = System.nanoTime();
         instance = this;
         primaryStage = stage;
 
-        DatabaseManager.initialize();
-        loadSettings();
-
-        // Build views
-        dashboardView  = new DashboardView(this);
-        tasksView      = new TasksView(this);
-        notesView      = new NotesView(this);
-        habitsView     = new HabitsView(this);
-        expensesView   = new ExpensesView(this);
-        scheduleView   = new ScheduleView(this);
-        analyticsView  = new AnalyticsView(this);
-
-        // Layout
-        sidebar    = new Sidebar(this);
-        headerBar  = new HeaderBar(this);
-        contentArea = new StackPane();
-        contentArea.getStyleClass().add("content-area");
-
-        root = new BorderPane();
-        root.getStyleClass().add("root-pane");
-        root.setLeft(sidebar);
-        root.setTop(headerBar);
-        root.setCenter(contentArea);
-
-        rootStack = new StackPane(root);
+        rootStack = new StackPane();
         rootStack.getStyleClass().add("dark-theme");
 
-        // Pomodoro floating widget
-        pomodoroWidget = new PomodoroWidget();
-        pomodoroWidget.setVisible(false);
-        StackPane.setAlignment(pomodoroWidget, Pos.TOP_RIGHT);
-        StackPane.setMargin(pomodoroWidget, new Insets(70, 20, 0, 0));
-        rootStack.getChildren().add(pomodoroWidget);
-
-        navigateTo("Dashboard");
-
         Scene scene = new Scene(rootStack, 1300, 820);
         String css = getClass().getResource("/styles.css") != null
                 ? getClass().getResource("/styles.css").toExternalForm()
@@ -87,6 +76,7 @@ public class App extends Application {
 
         // Keyboard shortcuts
         scene.setOnKeyPressed(e -> {
+            if (root == null) return; // still loading
             if (e.isControlDown() || e.isMetaDown()) {
                 switch (e.getCode()) {
                     case DIGIT1 -> navigateTo("Dashboard");
@@ -97,33 +87,127 @@ public class App extends Application {
                     case DIGIT6 -> navigateTo("Schedule");
                     case DIGIT7 -> navigateTo("Analytics");
                     case N      -> { navigateTo("Tasks"); tasksView.focusInput(); }
-                    case K      -> showCommandPalette();
+                    case K      -> CommandPalette.show(this);
                     default     -> {}
                 }
             }
             if (e.getCode() == KeyCode.ESCAPE) pomodoroWidget.setVisible(false);
         });
 
+        showLoadingScreen();
+
         stage.setTitle("FocusSphere — Productivity Dashboard");
         stage.setScene(scene);
         stage.setMinWidth(950);
         stage.setMinHeight(620);
         stage.show();
+        logPhase("window shown");
+
+        AsyncDatabase.initializeAsync()
+                .thenRun(() -> logPhase("database ready"))
+                .thenCompose(v -> AsyncDatabase.read(() -> { loadSettings(); return null; }))
+                .thenRunAsync(() -> {
+                    logPhase("settings loaded");
+                    buildShell();
+                    logPhase("shell built");
+                    dismissLoadingScreenAfterLayout(scene);
+                }, Platform::runLater)
+                .exceptionally(ex -> {
+                    Platform.runLater(() -> showStartupError(ex));
+                    return null;
+                });
+    }
 
-        showLoadingScreen();
+    // The workspace cannot be shown without its database: report why and quit
+    private void showStartupError(Throwable ex) {
+        Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+        LOG.log(Level.SEVERE, "startup failed", cause);
+        rootStack.getChildren().remove(loadingScreen);
+        Alert alert = new Alert(Alert.AlertType.ERROR,
+                "FocusSphere could not open its workspace and will close.\n\n" + cause);
+        alert.setHeaderText("Startup failed");
+        alert.initOwner(primaryStage);
+        alert.showAndWait();
+        Platform.exit();
+    }
+
+    private void buildShell() {
+        sidebar    = new Sidebar(this);
+        headerBar  = new HeaderBar(this);
+        contentArea = new StackPane();
+        contentArea.getStyleClass().add("content-area");
+
+        root = new BorderPane();
+        root.getStyleClass().add("root-pane");
+        root.setLeft(sidebar);
+        root.setTop(headerBar);
+        root.setCenter(contentArea);
+
+        if (!darkMode) {
+            rootStack.getStyleClass().remove("dark-theme");
+            rootStack.getStyleClass().add("light-theme");
+        }
+
+        // Pomodoro floating widget
+        pomodoroWidget = new PomodoroWidget();
+        pomodoroWidget.setVisible(false);
+        StackPane.setAlignment(pomodoroWidget, Pos.TOP_RIGHT);
+        StackPane.setMargin(pomodoroWidget, new Insets(70, 20, 0, 0));
+
+        // Below the loading screen, which is still on top
+        rootStack.getChildren().addAll(0, java.util.List.of(root, pomodoroWidget));
+
+        navigateTo("Dashboard");
+    }
+
+    @Override
+    public void stop() {
+        AutosaveService.flushAll();
+        WriteBehindQueue.flushAsync();
+        AsyncDatabase.shutdown();
+        DatabaseManager.shutdown();
     }
 
     public void navigateTo(String view) {
+        if (!view.equals(currentView)) AutosaveService.flushAll();
         currentView = view;
         contentArea.getChildren().clear();
         switch (view) {
-            case "Dashboard"  -> { dashboardView.refresh();  contentArea.getChildren().add(dashboardView); }
-            case "Tasks"      -> { tasksView.refresh();      contentArea.getChildren().add(tasksView); }
-            case "Notes"      -> { notesView.refresh();      contentArea.getChildren().add(notesView); }
-            case "Habits"     -> { habitsView.refresh();     contentArea.getChildren().add(habitsView); }
-            case "Expenses"   -> { expensesView.refresh();   contentArea.getChildren().add(expensesView); }
-            case "Schedule"   -> { scheduleView.refresh();   contentArea.getChildren().add(scheduleView); }
-            case "Analytics"  -> { analyticsView.refresh();  contentArea.getChildren().add(analyticsView); }
+            case "Dashboard" -> {
+                if (dashboardView == null) dashboardView = build(view, () -> new DashboardView(this));
+                dashboardView.refresh();
+                contentArea.getChildren().add(dashboardView);
+            }
+            case "Tasks" -> {
+                if (tasksView == null) tasksView = build(view, () -> new TasksView(this));
+                tasksView.refresh();
+                contentArea.getChildren().add(tasksView);
+            }
+            case "Notes" -> {
+                if (notesView == null) notesView = build(view, () -> new NotesView(this));
+                notesView.refresh();
+                contentArea.getChildren().add(notesView);
+            }
+            case "Habits" -> {
+                if (habitsView == null) habitsView = build(view, () -> new HabitsView(this));
+                habitsView.refresh();
+                contentArea.getChildren().add(habitsView);
+            }
+            case "Expenses" -> {
+                if (expensesView == null) expensesView = build(view, () -> new ExpensesView(this));
+                expensesView.refresh();
+                contentArea.getChildren().add(expensesView);
+            }
+            case "Schedule" -> {
+                if (scheduleView == null) scheduleView = build(view, () -> new ScheduleView(this));
+                scheduleView.refresh();
+                contentArea.getChildren().add(scheduleView);
+            }
+            case "Analytics" -> {
+                if (analyticsView == null) analyticsView = build(view, () -> new AnalyticsView(this));
+                analyticsView.refresh();
+                contentArea.getChildren().add(analyticsView);
+            }
         }
         sidebar.setActiveButton(view);
         headerBar.updateGreeting();
@@ -138,7 +222,7 @@ public class App extends Application {
             rootStack.getStyleClass().remove("dark-theme");
             rootStack.getStyleClass().add("light-theme");
         }
-        DatabaseManager.saveSetting("darkMode", String.valueOf(darkMode));
+        AsyncDatabase.saveSettingAsync("darkMode", String.valueOf(darkMode));
     }
 
     public void togglePomodoro() {
@@ -155,6 +239,17 @@ public class App extends Application {
         ToastNotification.show(rootStack, msg, success);
     }
 
+    private <T> T build(String name, Supplier<T> factory) {
+        long t0 = System.nanoTime();
+        T view = factory.get();
+        LOG.info(String.format("%s view built in %d ms", name, (System.nanoTime() - t0) / 1_000_000));
+        return view;
+    }
+
+    private void logPhase(String phase) {
+        LOG.info(String.format("startup: %s at %d ms", phase, (System.nanoTime() - startNanos) / 1_000_000));
+    }
+
     private void showLoadingScreen() {
         VBox loading = new VBox(15);
         loading.setAlignment(Pos.CENTER);
@@ -171,40 +266,27 @@ public class App extends Application {
 
         loading.getChildren().addAll(logo, spin, txt);
         rootStack.getChildren().add(loading);
+        loadingScreen = loading;
+    }
 
-        PauseTransition p = new PauseTransition(Duration.seconds(1.5));
-        p.setOnFinished(e -> {
-            FadeTransition ft = new FadeTransition(Duration.millis(500), loading);
+    // Fade out once the first pulse has laid out the dashboard, i.e. it is interactive
+    private void dismissLoadingScreenAfterLayout(Scene scene) {
+        Runnable[] listener = new Runnable[1];
+        listener[0] = () -> {
+            scene.removePostLayoutPulseListener(listener[0]);
+            logPhase("first interactive frame");
+            FadeTransition ft = new FadeTransition(Duration.millis(250), loadingScreen);
             ft.setToValue(0);
-            ft.setOnFinished(ev -> rootStack.getChildren().remove(loading));
+            ft.setOnFinished(ev -> rootStack.getChildren().remove(loadingScreen));
             ft.play();
-        });
-        p.play();
-    }
-
-    private void showCommandPalette() {
-        TextInputDialog dlg = new TextInputDialog();
-        dlg.setTitle("Quick Find");
-        dlg.setHeaderText("Search tasks and notes (Ctrl+K)");
-        dlg.setContentText("Search:");
-        dlg.showAndWait().ifPresent(query -> {
-            if (query.isBlank()) return;
-            String q = query.toLowerCase();
-            for (var t : DatabaseManager.getAllTasks()) {
-                if (t.getTitle().toLowerCase().contains(q)) {
-                    navigateTo("Tasks");
-                    return;
-                }
-            }
-            for (var n : DatabaseManager.getAllNotes()) {
-                if (n.getTitle().toLowerCase().contains(q) ||
-                    (n.getContent() != null && n.getContent().toLowerCase().contains(q))) {
-                    navigateTo("Notes");
-                    return;
-                }
-            }
-            showToast("No results found.", false);
-        });
+        };
+        scene.addPostLayoutPulseListener(listener[0]);
+    }
+
+    /** Show the view holding a search hit; notes open in the editor. */
+    public void openSearchResult(SearchResult r) {
+        navigateTo(r.source().view());
+        if (r.source() == SearchResult.Source.NOTE) notesView.openNote(r.id());
     }
 
     private void loadSettings() {
@@ -224,7 +306,7 @@ public class App extends Application {
 
     public void setUserName(String name) {
         userName = name;
-        DatabaseManager.saveSetting("userName", name);
+        AsyncDatabase.saveSettingAsync("userName", name);
         headerBar.updateGreeting();
     }
 
@@ -0,0 +1,88 @@
+package com.focussphere.components;
+
+import com.focussphere.App;
+import com.focussphere.db.AsyncDatabase;
+import com.focussphere.model.SearchResult;
+import javafx.application.Platform;
+import javafx.geometry.Insets;
+import javafx.scene.control.*;
+import javafx.scene.input.KeyCode;
+import javafx.scene.layout.VBox;
+
+/**
+ * Ctrl+K quick find. Results come from the full-text index as the user
+ * types; Enter or double-click opens the selected one.
+ */
+public class CommandPalette {
+
+    private static final int MAX_RESULTS = 20;
+
+    public static void show(App app) {
+        Dialog<SearchResult> dlg = new Dialog<>();
+        dlg.setTitle("Quick Find");
+        dlg.setHeaderText("Search tasks, notes, expenses and events (Ctrl+K)");
+
+        TextField field = new TextField();
+        field.setPromptText("Search...");
+
+        ListView<SearchResult> results = new ListView<>();
+        results.setPrefSize(480, 320);
+        results.setPlaceholder(new Label("Type to search"));
+        results.setCellFactory(lv -> new ListCell<>() {
+            @Override
+            protected void updateItem(SearchResult r, boolean empty) {
+                super.updateItem(r, empty);
+                if (empty || r == null) {
+                    setGraphic(null);
+                    return;
+                }
+                Label title = new Label(r.source().icon() + "  " + r.title());
+                title.setStyle("-fx-font-weight:bold;");
+                Label snippet = new Label(r.snippet());
+                snippet.setStyle("-fx-font-size:11; -fx-opacity:0.7;");
+                setGraphic(new VBox(2, title, snippet));
+            }
+        });
+
+        // Only the latest query's results are shown
+        int[] seq = { 0 };
+        field.textProperty().addListener((obs, old, query) -> {
+            int s = ++seq[0];
+            AsyncDatabase.searchAsync(query, MAX_RESULTS).thenAcceptAsync(hits -> {
+                if (s != seq[0]) return;
+                results.getItems().setAll(hits);
+                if (!hits.isEmpty()) results.getSelectionModel().selectFirst();
+                results.setPlaceholder(new Label(query.isBlank() ? "Type to search" : "No results found."));
+            }, Platform::runLater);
+        });
+
+        field.setOnKeyPressed(e -> {
+            if (e.getCode() == KeyCode.DOWN) {
+                results.getSelectionModel().selectNext();
+                e.consume();
+            } else if (e.getCode() == KeyCode.UP) {
+                results.getSelectionModel().selectPrevious();
+                e.consume();
+            }
+        });
+        field.setOnAction(e -> choose(dlg, results.getSelectionModel().getSelectedItem()));
+        results.setOnMouseClicked(e -> {
+            if (e.getClickCount() == 2) choose(dlg, results.getSelectionModel().getSelectedItem());
+        });
+
+        VBox box = new VBox(10, field, results);
+        box.setPadding(new Insets(10));
+        dlg.getDialogPane().setContent(box);
+        dlg.getDialogPane().getButtonTypes().add(ButtonType.CANCEL);
+        dlg.setResultConverter(btn -> null);
+        dlg.setOnShown(e -> field.requestFocus());
+
+        dlg.showAndWait().ifPresent(app::openSearchResult);
+    }
+
+    private static void choose(Dialog<SearchResult> dlg, SearchResult r) {
+        if (r == null) return;
+        dlg.setResult(r);
+        dlg.close();
+    }
+}
@@ -0,0 +1,212 @@
+package com.focussphere.components;
+
+import com.focussphere.model.ScheduleEvent;
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.geometry.Pos;
+import javafx.geometry.VPos;
+import javafx.scene.Node;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.control.ContextMenu;
+import javafx.scene.control.Label;
+import javafx.scene.control.MenuItem;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.util.Duration;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Timeline of one or more days side by side (day and week views). The hour
+ * grid, day columns and the now-line are painted on a Canvas; as time passes
+ * only the strips the now-line leaves and enters are repainted. Events are
+ * single labels laid over the canvas, so loading events never rebuilds the
+ * grid.
+ */
+public class DayTimeline extends Pane {
+
+    public static final double HOUR_HEIGHT = 60;
+    private static final double GUTTER = 60;      // hour labels left of the grid
+    private static final double EVENT_X = 80;
+    private static final double EVENT_WIDTH = 300;   // single-day column
+    private static final double RIGHT_MARGIN = 10;
+    private static final double NOW_BAND = 8;     // half-height of the now-line's strip
+
+    private static final Color GRID_COLOR = Color.web("#334155");
+    private static final Color HOUR_COLOR = Color.web("#64748b");
+    private static final Color NOW_COLOR = Color.web("#ef4444");
+    private static final Font HOUR_FONT = Font.font(11);
+
+    private final Canvas grid = new Canvas(0, 24 * HOUR_HEIGHT);
+    private List<LocalDate> days = List.of(LocalDate.now());
+    private double nowY = -1; // -1 when today is not shown
+    private final Timeline clock = new Timeline(new KeyFrame(Duration.seconds(30), e -> setNowVisible()));
+    private Consumer<ScheduleEvent> onDelete = ev -> {};
+    private List<EventLayout> layouts = List.of(); // one per day column
+
+    public DayTimeline() {
+        getStyleClass().add("timeline-pane");
+        setPrefHeight(24 * HOUR_HEIGHT);
+        setMinHeight(24 * HOUR_HEIGHT);
+
+        grid.setManaged(false); // sized from the pane, never the other way round
+        grid.widthProperty().bind(widthProperty());
+        grid.widthProperty().addListener((obs, o, n) -> paint(0, grid.getHeight()));
+        setNowVisible();
+        getChildren().add(grid);
+
+        // Ticks only while shown; the tick also notices when midnight moves today in or out of view
+        clock.setCycleCount(Animation.INDEFINITE);
+        sceneProperty().addListener((obs, o, scene) -> {
+            if (scene == null) {
+                clock.stop();
+            } else {
+                setNowVisible();
+                clock.play();
+            }
+        });
+    }
+
+    /** Days shown as columns, left to right; events on other days are not shown. */
+    public void setDays(List<LocalDate> days) {
+        boolean columnsChanged = days.size() != this.days.size();
+        if (!days.equals(this.days)) {
+            getChildren().setAll(grid); // overlays of the old period until setEvents
+            layouts = List.of();
+        }
+        this.days = List.copyOf(days);
+        if (columnsChanged) paint(0, grid.getHeight());
+        setNowVisible();
+        requestLayout();
+    }
+
+    public void setOnDelete(Consumer<ScheduleEvent> onDelete) {
+        this.onDelete = onDelete;
+    }
+
+    /**
+     * Replace the event overlays; the canvas is left untouched. Overlapping
+     * events within a day share its column side by side.
+     */
+    public void setEvents(List<ScheduleEvent> events) {
+        List<Label> blocks = new ArrayList<>(events.size());
+        List<List<ScheduleEvent>> perDay = new ArrayList<>();
+        for (int i = 0; i < days.size(); i++) perDay.add(new ArrayList<>());
+        for (ScheduleEvent ev : events) {
+            int col = column(ev);
+            if (col < 0) continue;
+            perDay.get(col).add(ev);
+            blocks.add(createBlock(ev));
+        }
+        layouts = perDay.stream().map(EventLayout::new).toList();
+        getChildren().setAll(grid);
+        getChildren().addAll(blocks);
+    }
+
+    /** Y offset of the current time, e.g. for scrolling to it. */
+    public static double currentY() {
+        LocalTime now = LocalTime.now();
+        return (now.getHour() * 60 + now.getMinute()) / 60.0 * HOUR_HEIGHT;
+    }
+
+    private Label createBlock(ScheduleEvent ev) {
+        Label block = new Label(ev.getTitle() + "\n" + ev.getStartTime() + " — " + ev.getEndTime());
+        block.setStyle("-fx-background-color:" + ev.getColor() + "cc; -fx-background-radius:8;" +
+                "-fx-padding:6 10; -fx-text-fill:white; -fx-font-size:12;");
+        block.setAlignment(Pos.TOP_LEFT);
+        block.setUserData(ev);
+
+        // Right-click to delete
+        ContextMenu ctx = new ContextMenu();
+        MenuItem del = new MenuItem("Delete");
+        del.setOnAction(e -> onDelete.accept(ev));
+        ctx.getItems().add(del);
+        block.setContextMenu(ctx);
+        return block;
+    }
+
+    // Blocks are placed here rather than by Pane, since their x depends on the column width
+    @Override
+    protected void layoutChildren() {
+        double colWidth = columnWidth();
+        for (Node n : getChildren()) {
+            if (!(n.getUserData() instanceof ScheduleEvent ev)) continue;
+            int col = column(ev);
+            if (col < 0 || col >= layouts.size()) continue;
+            EventLayout.Placement p = layouts.get(col).placement(ev);
+            double laneWidth = colWidth / p.columns();
+            double y = (ev.getStartMinute() / 60.0) * HOUR_HEIGHT;
+            double h = Math.max(EventLayout.blockMinutes(ev), EventLayout.MIN_BLOCK_MINUTES) / 60.0 * HOUR_HEIGHT;
+            n.resizeRelocate(EVENT_X + col * colWidth + p.column() * laneWidth + 2, y, laneWidth - 4, h);
+        }
+    }
+
+    private int column(ScheduleEvent ev) {
+        for (int i = 0; i < days.size(); i++) {
+            if (days.get(i).toEpochDay() == ev.getDay()) return i;
+        }
+        return -1;
+    }
+
+    private double columnWidth() {
+        if (days.size() == 1) return EVENT_WIDTH;
+        return Math.max(40, (getWidth() - EVENT_X - RIGHT_MARGIN) / days.size());
+    }
+
+    private void setNowVisible() {
+        double old = nowY;
+        nowY = days.contains(LocalDate.now()) ? currentY() : -1;
+        if (old == nowY) return;
+        if (old >= 0) paint(old - NOW_BAND, old + NOW_BAND);
+        if (nowY >= 0) paint(nowY - NOW_BAND, nowY + NOW_BAND);
+    }
+
+    // Repaint the horizontal strip [y0, y1]: grid lines, hour labels and the now-line inside it
+    private void paint(double y0, double y1) {
+        double w = grid.getWidth();
+        if (w <= 0) return;
+        y0 = Math.max(0, y0);
+        y1 = Math.min(grid.getHeight(), y1);
+
+        GraphicsContext g = grid.getGraphicsContext2D();
+        g.save();
+        g.beginPath();
+        g.rect(0, y0, w, y1 - y0);
+        g.clip();
+        g.clearRect(0, y0, w, y1 - y0);
+
+        g.setFont(HOUR_FONT);
+        g.setTextBaseline(VPos.TOP);
+        int first = Math.max(0, (int) (y0 / HOUR_HEIGHT) - 1);
+        for (int h = first; h < 24 && h * HOUR_HEIGHT <= y1; h++) {
+            double y = h * HOUR_HEIGHT;
+            g.setFill(HOUR_COLOR);
+            g.fillText(String.format("%02d:00", h), 10, y + 2);
+            g.setFill(GRID_COLOR);
+            g.fillRect(GUTTER, y, w - GUTTER, 1);
+        }
+
+        // Day column separators
+        if (days.size() > 1) {
+            g.setFill(GRID_COLOR);
+            double colWidth = columnWidth();
+            for (int i = 1; i < days.size(); i++) {
+                g.fillRect(EVENT_X + i * colWidth, y0, 1, y1 - y0);
+            }
+        }
+
+        if (nowY >= 0) {
+            g.setFill(NOW_COLOR);
+            g.fillRect(GUTTER, nowY, w - GUTTER, 2);
+            g.fillOval(GUTTER - 8, nowY - 3, 8, 8);
+        }
+        g.restore();
+    }
+}
@@ -0,0 +1,136 @@
+package com.focussphere.components;
+
+import com.focussphere.model.ScheduleEvent;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Interval index over one day's events, in minutes from midnight. Events are
+ * kept in an implicit balanced tree sorted by start, each node holding the
+ * latest end in its subtree, so overlap queries cost O(log n + k). Building
+ * it also assigns side-by-side columns to overlapping events in O(n log n).
+ */
+public final class EventLayout {
+
+    /** Where one event sits within its group of overlapping events. */
+    public record Placement(int column, int columns) {}
+
+    /** Shortest block drawn; shorter events are laid out as if this long. */
+    public static final int MIN_BLOCK_MINUTES = 20;
+    /** Block drawn for an event missing its start or end time; it counts no scheduled minutes. */
+    public static final int DEFAULT_BLOCK_MINUTES = 60;
+
+    private final ScheduleEvent[] events; // sorted by start, then end
+    private final int[] start, end;
+    private final int[] maxEnd;           // latest end in the subtree rooted at each index
+    private final Map<ScheduleEvent, Placement> placements = new HashMap<>();
+
+    public EventLayout(List<ScheduleEvent> dayEvents) {
+        events = dayEvents.toArray(new ScheduleEvent[0]);
+        Arrays.sort(events, Comparator.comparingInt(ScheduleEvent::getStartMinute)
+                .thenComparingInt(EventLayout::endMinute));
+        int n = events.length;
+        start = new int[n];
+        end = new int[n];
+        maxEnd = new int[n];
+        for (int i = 0; i < n; i++) {
+            start[i] = events[i].getStartMinute();
+            end[i] = endMinute(events[i]);
+        }
+        buildMaxEnd(0, n);
+        assignColumns();
+    }
+
+    /** Minutes the event's block covers on a timeline. */
+    public static int blockMinutes(ScheduleEvent ev) {
+        return ev.isTimed() ? ev.getDurationMinutes() : DEFAULT_BLOCK_MINUTES;
+    }
+
+    private static int endMinute(ScheduleEvent ev) {
+        return ev.getStartMinute() + blockMinutes(ev);
+    }
+
+    private int buildMaxEnd(int lo, int hi) {
+        if (lo >= hi) return Integer.MIN_VALUE;
+        int mid = (lo + hi) >>> 1;
+        maxEnd[mid] = Math.max(end[mid], Math.max(buildMaxEnd(lo, mid), buildMaxEnd(mid + 1, hi)));
+        return maxEnd[mid];
+    }
+
+    // Sweep by start: reuse the lowest column freed by an event that has ended.
+    // A group closes when nothing is open; all its events share its column count.
+    private void assignColumns() {
+        PriorityQueue<int[]> open = new PriorityQueue<>(Comparator.comparingInt(a -> a[0])); // {end, column}
+        PriorityQueue<Integer> freeColumns = new PriorityQueue<>();
+        int[] columnOf = new int[events.length];
+        int groupStart = 0, groupColumns = 0;
+
+        for (int i = 0; i < events.length; i++) {
+            while (!open.isEmpty() && open.peek()[0] <= start[i]) freeColumns.add(open.poll()[1]);
+            if (open.isEmpty()) {
+                closeGroup(groupStart, i, columnOf, groupColumns);
+                freeColumns.clear();
+                groupStart = i;
+                groupColumns = 0;
+            }
+            int column = freeColumns.isEmpty() ? groupColumns++ : freeColumns.poll();
+            columnOf[i] = column;
+            open.add(new int[] { start[i] + Math.max(end[i] - start[i], MIN_BLOCK_MINUTES), column });
+        }
+        closeGroup(groupStart, events.length, columnOf, groupColumns);
+    }
+
+    private void closeGroup(int from, int to, int[] columnOf, int columns) {
+        for (int i = from; i < to; i++) {
+            placements.put(events[i], new Placement(columnOf[i], columns));
+        }
+    }
+
+    public Placement placement(ScheduleEvent ev) {
+        return placements.getOrDefault(ev, new Placement(0, 1));
+    }
+
+    /** Events overlapping the half-open range [from, to). */
+    public List<ScheduleEvent> overlapping(int from, int to) {
+        List<ScheduleEvent> out = new ArrayList<>();
+        if (from < to) collect(0, events.length, from, to, out);
+        return out;
+    }
+
+    private void collect(int lo, int hi, int from, int to, List<ScheduleEvent> out) {
+        if (lo >= hi) return;
+        int mid = (lo + hi) >>> 1;
+        if (maxEnd[mid] <= from) return; // nothing below here ends after from
+        collect(lo, mid, from, to, out);
+        if (start[mid] >= to) return;    // everything to the right starts too late
+        if (end[mid] > from && end[mid] > start[mid]) out.add(events[mid]);
+        collect(mid + 1, hi, from, to, out);
+    }
+
+    /** Other events on the day that overlap {@code ev}. */
+    public List<ScheduleEvent> conflictsWith(ScheduleEvent ev) {
+        List<ScheduleEvent> hits = overlapping(ev.getStartMinute(), endMinute(ev));
+        hits.removeIf(other -> other == ev || (ev.getId() != 0 && other.getId() == ev.getId()));
+        return hits;
+    }
+
+    /**
+     * Start of the first gap of at least {@code minutes} between {@code from}
+     * and {@code until}, or -1 if the day has none.
+     */
+    public int findFreeSlot(int minutes, int from, int until) {
+        int candidate = from;
+        for (int i = 0; i < events.length && start[i] < until; i++) {
+            if (end[i] <= candidate || end[i] == start[i]) continue;
+            if (start[i] - candidate >= minutes) return candidate;
+            candidate = Math.max(candidate, end[i]);
+        }
+        return until - candidate >= minutes ? candidate : -1;
+    }
+}
@@ -0,0 +1,124 @@
+package com.focussphere.components;
+
+import javafx.geometry.VPos;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.control.Tooltip;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+
+import java.time.LocalDate;
+import java.time.format.TextStyle;
+import java.util.Locale;
+import java.util.function.Consumer;
+import java.util.function.LongToIntFunction;
+
+/**
+ * GitHub-style heatmap of the last 53 weeks, one column per week from
+ * Monday to Sunday, painted on a single Canvas. Cells are found from mouse
+ * coordinates, so a year of days costs no nodes or handlers. Each day's
+ * value is read through {@link #setValues}: 0/1 for one habit, or the number
+ * of habits completed that day for the aggregate.
+ */
+public class HabitHeatmap extends Canvas {
+
+    private static final int WEEKS = 53;
+    private static final double CELL = 11;
+    private static final double STEP = CELL + 3;
+    private static final double LEFT = 28;    // weekday labels
+    private static final double TOP = 16;     // month labels
+
+    private static final Color EMPTY = Color.web("#1e293b");
+    private static final Color[] LEVELS = {
+            Color.web("#14532d"), Color.web("#15803d"), Color.web("#22c55e"), Color.web("#4ade80") };
+    private static final Color LABEL_COLOR = Color.web("#64748b");
+    private static final Color TODAY_COLOR = Color.web("#f1f5f9");
+    private static final Font LABEL_FONT = Font.font(9);
+
+    private LocalDate firstDay;               // Monday of the first column
+    private long today;
+    private LongToIntFunction values = day -> 0;
+    private int max = 1;
+    private Consumer<LocalDate> onToggle;
+    private final Tooltip tip = new Tooltip();
+
+    public HabitHeatmap() {
+        super(LEFT + WEEKS * STEP, TOP + 7 * STEP);
+        Tooltip.install(this, tip);
+        setOnMouseMoved(e -> {
+            LocalDate day = dayAt(e.getX(), e.getY());
+            tip.setText(day == null ? "" : day + ": " + describe(values.applyAsInt(day.toEpochDay())));
+        });
+        setOnMouseClicked(e -> {
+            LocalDate day = dayAt(e.getX(), e.getY());
+            if (day != null && onToggle != null) onToggle.accept(day);
+        });
+    }
+
+    /** Day values by epoch day; {@code max} is the value drawn in the strongest colour. */
+    public void setValues(LongToIntFunction values, int max) {
+        this.values = values;
+        this.max = Math.max(1, max);
+        redraw();
+    }
+
+    /** Make cells clickable; the callback gets the clicked day (never a future one). */
+    public void setOnToggle(Consumer<LocalDate> onToggle) {
+        this.onToggle = onToggle;
+        setCursor(onToggle == null ? null : javafx.scene.Cursor.HAND);
+    }
+
+    public void redraw() {
+        updateRange();
+        GraphicsContext g = getGraphicsContext2D();
+        g.clearRect(0, 0, getWidth(), getHeight());
+        g.setFont(LABEL_FONT);
+        g.setTextBaseline(VPos.TOP);
+        g.setFill(LABEL_COLOR);
+        g.fillText("Mon", 0, TOP);
+        g.fillText("Wed", 0, TOP + 2 * STEP);
+        g.fillText("Fri", 0, TOP + 4 * STEP);
+
+        long first = firstDay.toEpochDay();
+        for (int week = 0; week < WEEKS; week++) {
+            double x = LEFT + week * STEP;
+            LocalDate monday = firstDay.plusWeeks(week);
+            if (monday.getDayOfMonth() <= 7) { // first week starting in a month
+                g.setFill(LABEL_COLOR);
+                g.fillText(monday.getMonth().getDisplayName(TextStyle.SHORT, Locale.ENGLISH), x, 0);
+            }
+            for (int dow = 0; dow < 7; dow++) {
+                long day = first + week * 7L + dow;
+                if (day > today) break;
+                int v = values.applyAsInt(day);
+                g.setFill(v <= 0 ? EMPTY : LEVELS[Math.min(LEVELS.length - 1, (v * LEVELS.length - 1) / max)]);
+                g.fillRoundRect(x, TOP + dow * STEP, CELL, CELL, 3, 3);
+                if (day == today) {
+                    g.setStroke(TODAY_COLOR);
+                    g.strokeRoundRect(x + 0.5, TOP + dow * STEP + 0.5, CELL - 1, CELL - 1, 3, 3);
+                }
+            }
+        }
+    }
+
+    // Columns end with the current week
+    private void updateRange() {
+        LocalDate now = LocalDate.now();
+        today = now.toEpochDay();
+        firstDay = now.minusDays(now.getDayOfWeek().getValue() - 1).minusWeeks(WEEKS - 1);
+    }
+
+    private LocalDate dayAt(double x, double y) {
+        if (firstDay == null || x < LEFT || y < TOP) return null;
+        int week = (int) ((x - LEFT) / STEP), dow = (int) ((y - TOP) / STEP);
+        if (week >= WEEKS || dow >= 7) return null;
+        if (x - LEFT - week * STEP > CELL || y - TOP - dow * STEP > CELL) return null; // in a gap
+        long day = firstDay.toEpochDay() + week * 7L + dow;
+        return day > today ? null : LocalDate.ofEpochDay(day);
+    }
+
+    private String describe(int v) {
+        if (max == 1) return v > 0 ? "completed" : "not completed";
+        return v + (v == 1 ? " habit" : " habits") + " completed";
+    }
+}
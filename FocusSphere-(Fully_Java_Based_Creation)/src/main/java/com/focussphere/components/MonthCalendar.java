@@ -0,0 +1,114 @@
+package com.focussphere.components;
+
+import com.focussphere.model.DayEventStats;
+import com.focussphere.model.ScheduleEvent;
+import javafx.geometry.Insets;
+import javafx.scene.control.Label;
+import javafx.scene.layout.*;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.TextStyle;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Six-week month grid starting on Monday. The 42 day cells are built once
+ * and refilled for each month; each shows the day's event count, scheduled
+ * hours and its first few event titles.
+ */
+public class MonthCalendar extends GridPane {
+
+    public static final int DAYS = 42;
+    private static final int TITLES_PER_DAY = 3;
+
+    private final DayCell[] cells = new DayCell[DAYS];
+    private Consumer<LocalDate> onDayClicked = d -> {};
+
+    public MonthCalendar() {
+        setHgap(6);
+        setVgap(6);
+        for (int c = 0; c < 7; c++) {
+            ColumnConstraints cc = new ColumnConstraints();
+            cc.setPercentWidth(100.0 / 7);
+            getColumnConstraints().add(cc);
+
+            Label name = new Label(DayOfWeek.of(c + 1).getDisplayName(TextStyle.SHORT, Locale.ENGLISH));
+            name.setStyle("-fx-text-fill:#94a3b8; -fx-font-size:11; -fx-font-weight:bold;");
+            add(name, c, 0);
+        }
+        for (int i = 0; i < DAYS; i++) {
+            cells[i] = new DayCell();
+            GridPane.setVgrow(cells[i], Priority.ALWAYS);
+            add(cells[i], i % 7, 1 + i / 7);
+        }
+    }
+
+    /** First day of the grid that shows {@code month}: the Monday on or before the 1st. */
+    public static LocalDate gridStart(YearMonth month) {
+        LocalDate first = month.atDay(1);
+        return first.minusDays(first.getDayOfWeek().getValue() - 1);
+    }
+
+    public void setOnDayClicked(Consumer<LocalDate> onDayClicked) {
+        this.onDayClicked = onDayClicked;
+    }
+
+    /**
+     * Fill the grid for {@code month} from one range of events (ordered by
+     * date and start time) and the per-day stats for the same range.
+     */
+    public void show(YearMonth month, List<ScheduleEvent> events, Map<String, DayEventStats> stats) {
+        LocalDate start = gridStart(month);
+        LocalDate today = LocalDate.now();
+        int e = 0;
+        for (int i = 0; i < DAYS; i++) {
+            LocalDate day = start.plusDays(i);
+            String key = day.toString();
+            long epochDay = day.toEpochDay();
+            StringBuilder titles = new StringBuilder();
+            int shown = 0;
+            while (e < events.size() && events.get(e).getDay() < epochDay) e++;
+            for (; e < events.size() && events.get(e).getDay() == epochDay; e++) {
+                if (shown++ < TITLES_PER_DAY) {
+                    if (titles.length() > 0) titles.append('\n');
+                    titles.append(events.get(e).getStartTime()).append(' ').append(events.get(e).getTitle());
+                }
+            }
+            cells[i].fill(day, month.equals(YearMonth.from(day)), day.equals(today), stats.get(key), titles.toString());
+        }
+    }
+
+    private class DayCell extends VBox {
+        private final Label number = new Label();
+        private final Label summary = new Label();
+        private final Label titles = new Label();
+        private LocalDate day;
+
+        DayCell() {
+            super(2);
+            getStyleClass().add("card");
+            setPadding(new Insets(6, 8, 6, 8));
+            setMinHeight(80);
+            setCursor(javafx.scene.Cursor.HAND);
+            summary.setStyle("-fx-text-fill:#818cf8; -fx-font-size:10;");
+            titles.setStyle("-fx-text-fill:#cbd5e1; -fx-font-size:10;");
+            getChildren().addAll(number, summary, titles);
+            setOnMouseClicked(ev -> onDayClicked.accept(day));
+        }
+
+        void fill(LocalDate day, boolean inMonth, boolean today, DayEventStats stats, String eventTitles) {
+            this.day = day;
+            number.setText(String.valueOf(day.getDayOfMonth()));
+            number.setStyle("-fx-font-size:13; -fx-font-weight:bold; -fx-text-fill:"
+                    + (today ? "#ef4444" : inMonth ? "#f1f5f9" : "#475569") + ";");
+            setOpacity(inMonth ? 1 : 0.55);
+            summary.setText(stats == null ? "" : stats.eventCount() + (stats.eventCount() == 1 ? " event" : " events")
+                    + String.format(" \u00B7 %.1fh", stats.totalMinutes() / 60.0));
+            titles.setText(eventTitles);
+        }
+    }
+}
@@ -1,7 +1,8 @@
 package com.focussphere.components;
 
 import com.focussphere.App;
-import com.focussphere.db.DatabaseManager;
+import com.focussphere.db.AsyncDatabase;
+import javafx.application.Platform;
 import javafx.geometry.*;
 import javafx.scene.control.*;
 import javafx.scene.layout.*;
@@ -134,9 +135,10 @@ public class Sidebar extends VBox {
                     "This will DELETE everything. Continue?", ButtonType.YES, ButtonType.NO);
             confirm.showAndWait().ifPresent(bt -> {
                 if (bt == ButtonType.YES) {
-                    DatabaseManager.wipeAllData();
-                    app.showToast("All data wiped!", false);
-                    app.navigateTo("Dashboard");
+                    AsyncDatabase.wipeAllDataAsync().thenRunAsync(() -> {
+                        app.showToast("All data wiped!", false);
+                        app.navigateTo("Dashboard");
+                    }, Platform::runLater);
                     dlg.close();
                 }
             });
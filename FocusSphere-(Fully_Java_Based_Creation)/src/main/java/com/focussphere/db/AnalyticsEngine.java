@@ -0,0 +1,258 @@
+package com.focussphere.db;
+
+import com.focussphere.model.AnalyticsSnapshot;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.TextStyle;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Per-day analytics buckets for the last {@value #MAX_DAYS} days, shared by
+ * every range the analytics view offers. Completed tasks, habits and mood
+ * are loaded with one GROUP BY query each on a reader thread; expenses and
+ * events are scanned from {@link ColumnStore}. A committed write only marks its entity's series stale, so
+ * the next request reloads that one series. Results for each range are
+ * derived from the buckets and kept until something changes, so switching
+ * ranges does not touch the database.
+ */
+public final class AnalyticsEngine {
+
+    public static final int MAX_DAYS = 90;
+
+    private enum Series { TASKS, HABITS, EVENTS, EXPENSES, MOOD }
+
+    private static final DateTimeFormatter LABEL_FMT = DateTimeFormatter.ofPattern("MM-dd");
+
+    // Bumped by writes; a series is fresh while the window's loaded version matches
+    private static final AtomicIntegerArray versions = new AtomicIntegerArray(Series.values().length);
+
+    /** Loaded buckets for one day. Index 0 is today - MAX_DAYS, the last index is today. */
+    private static final class Window {
+        final LocalDate today;
+        final int[] loaded = new int[Series.values().length];
+        final int[] tasksDone = new int[MAX_DAYS + 1];
+        final int[] habitsDone = new int[MAX_DAYS + 1];
+        final int[] eventCount = new int[MAX_DAYS + 1];
+        final int[] eventMinutes = new int[MAX_DAYS + 1];
+        final long[] spentCents = new long[MAX_DAYS + 1];
+        List<String> categories = List.of();
+        long[][] categoryCents = new long[0][];
+        int maxStreak;
+        String latestMood;
+        final Map<Integer, AnalyticsSnapshot> results = new ConcurrentHashMap<>();
+
+        Window(LocalDate today) { this.today = today; }
+
+        boolean isFresh() {
+            if (!LocalDate.now().equals(today)) return false;
+            for (Series s : Series.values()) {
+                if (loaded[s.ordinal()] != versions.get(s.ordinal())) return false;
+            }
+            return true;
+        }
+    }
+
+    // Replaced, never modified, once published; reloads are serialized by the class lock
+    private static volatile Window window;
+
+    private AnalyticsEngine() {}
+
+    /** Snapshot for the last {@code days} days, computed on a reader thread if not cached. */
+    public static CompletableFuture<AnalyticsSnapshot> load(int days) {
+        AnalyticsSnapshot cached = peek(days);
+        if (cached != null) return CompletableFuture.completedFuture(cached);
+        return AsyncDatabase.read(() -> snapshot(days));
+    }
+
+    /**
+     * The snapshot for {@code days} if the loaded buckets are current, else
+     * null. Never waits for a reload; deriving a range from loaded buckets is
+     * a pass over at most {@value #MAX_DAYS} days, cheap enough for the FX thread.
+     */
+    public static AnalyticsSnapshot peek(int days) {
+        Window w = window;
+        return w != null && w.isFresh() ? w.results.computeIfAbsent(days, n -> compute(w, n)) : null;
+    }
+
+    // =================== DAO HOOK ===================
+    static void invalidate(DataChange.Entity entity) {
+        switch (entity) {
+            case TASK -> versions.incrementAndGet(Series.TASKS.ordinal());
+            case HABIT -> versions.incrementAndGet(Series.HABITS.ordinal());
+            case EVENT -> versions.incrementAndGet(Series.EVENTS.ordinal());
+            case EXPENSE -> versions.incrementAndGet(Series.EXPENSES.ordinal());
+            case MOOD -> versions.incrementAndGet(Series.MOOD.ordinal());
+            default -> {}
+        }
+    }
+
+    // =================== BUCKETS ===================
+    // Copies the current series into a new window and reloads only the stale
+    // ones; after midnight the window moved, so everything is reloaded.
+    private static synchronized AnalyticsSnapshot snapshot(int days) {
+        Window old = window;
+        if (old == null || !old.isFresh()) {
+            Window w = new Window(LocalDate.now());
+            boolean sameDay = old != null && old.today.equals(w.today);
+            for (Series s : Series.values()) {
+                if (sameDay && old.loaded[s.ordinal()] == versions.get(s.ordinal())) copy(old, w, s);
+                else reload(w, s);
+            }
+            window = old = w;
+        }
+        Window w = old;
+        return w.results.computeIfAbsent(days, n -> compute(w, n));
+    }
+
+    private static void copy(Window from, Window to, Series s) {
+        to.loaded[s.ordinal()] = from.loaded[s.ordinal()];
+        switch (s) {
+            case TASKS -> System.arraycopy(from.tasksDone, 0, to.tasksDone, 0, MAX_DAYS + 1);
+            case HABITS -> {
+                System.arraycopy(from.habitsDone, 0, to.habitsDone, 0, MAX_DAYS + 1);
+                to.maxStreak = from.maxStreak;
+            }
+            case EVENTS -> {
+                System.arraycopy(from.eventCount, 0, to.eventCount, 0, MAX_DAYS + 1);
+                System.arraycopy(from.eventMinutes, 0, to.eventMinutes, 0, MAX_DAYS + 1);
+            }
+            case EXPENSES -> {
+                System.arraycopy(from.spentCents, 0, to.spentCents, 0, MAX_DAYS + 1);
+                to.categories = from.categories;
+                to.categoryCents = from.categoryCents;
+            }
+            case MOOD -> to.latestMood = from.latestMood;
+        }
+    }
+
+    // Version is read first: a write landing during the query leaves the series stale
+    private static void reload(Window w, Series s) {
+        w.loaded[s.ordinal()] = versions.get(s.ordinal());
+        String from = w.today.minusDays(MAX_DAYS).toString(), to = w.today.toString();
+        long last = w.today.toEpochDay(), first = last - MAX_DAYS;
+        switch (s) {
+            case TASKS -> fill(w, w.tasksDone, DatabaseManager.countCompletedTasksPerDay(from, to));
+            case HABITS -> {
+                fill(w, w.habitsDone, DatabaseManager.countHabitCompletionsPerDay(from, to));
+                w.maxStreak = DatabaseManager.getCurrentStreaks(to).values().stream()
+                        .mapToInt(Integer::intValue).max().orElse(0);
+            }
+            case EVENTS -> {
+                System.arraycopy(ColumnStore.eventCountPerDay(first, last), 0, w.eventCount, 0, MAX_DAYS + 1);
+                long[] minutes = ColumnStore.eventMinutesPerDay(first, last);
+                for (int i = 0; i <= MAX_DAYS; i++) w.eventMinutes[i] = (int) minutes[i];
+            }
+            case EXPENSES -> {
+                // Names after the matrix: the dictionary only grows, so every row has a name
+                w.categoryCents = ColumnStore.expenseCentsPerCategoryPerDay(first, last);
+                w.categories = ColumnStore.categories();
+                System.arraycopy(ColumnStore.expenseCentsPerDay(first, last), 0, w.spentCents, 0, MAX_DAYS + 1);
+            }
+            case MOOD -> w.latestMood = DatabaseManager.getLatestMood();
+        }
+    }
+
+    private static void fill(Window w, int[] buckets, Map<String, Integer> perDay) {
+        perDay.forEach((day, n) -> {
+            int i = index(w, day);
+            if (i >= 0) buckets[i] = n;
+        });
+    }
+
+    private static int index(Window w, String day) {
+        try {
+            int i = (int) (LocalDate.parse(day).toEpochDay() - w.today.toEpochDay()) + MAX_DAYS;
+            return i >= 0 && i <= MAX_DAYS ? i : -1;
+        } catch (RuntimeException e) {
+            return -1; // blank or malformed dates are not charted
+        }
+    }
+
+    // =================== RANGES ===================
+    // Trend charts cover today - days .. today; the weekly bars the last 7 days
+    private static AnalyticsSnapshot compute(Window w, int days) {
+        days = Math.min(days, MAX_DAYS);
+        int first = MAX_DAYS - days;
+
+        long completed = 0, spentCents = 0;
+        for (int i = first; i <= MAX_DAYS; i++) {
+            completed += w.tasksDone[i];
+            spentCents += w.spentCents[i];
+        }
+        // Focus time counts the last `days` days, today included
+        int focusMinutes = 0;
+        for (int i = first + 1; i <= MAX_DAYS; i++) focusMinutes += w.eventMinutes[i];
+
+        List<String> labels = new ArrayList<>();
+        List<Long> tasksPerDay = new ArrayList<>();
+        List<Double> productivity = new ArrayList<>();
+        List<Integer> moods = new ArrayList<>();
+        int baseMood = moodValue(w.latestMood);
+        Random moodVariation = new Random(42); // Fixed seed for consistent "data"
+        for (int i = first; i <= MAX_DAYS; i++) {
+            labels.add(w.today.minusDays(MAX_DAYS - i).format(LABEL_FMT));
+            tasksPerDay.add((long) w.tasksDone[i]);
+            productivity.add((double) (w.habitsDone[i] * 20) + (w.eventCount[i] * 10));
+            // Only the latest mood is stored; vary around it
+            moods.add(Math.max(1, Math.min(4, baseMood + moodVariation.nextInt(3) - 1)));
+        }
+
+        List<String> weekDays = new ArrayList<>();
+        List<Double> weekScores = new ArrayList<>();
+        for (int i = MAX_DAYS - 6; i <= MAX_DAYS; i++) {
+            weekDays.add(w.today.minusDays(MAX_DAYS - i).getDayOfWeek().getDisplayName(TextStyle.SHORT, Locale.ENGLISH));
+            weekScores.add(activityScore(w, i));
+        }
+
+        return new AnalyticsSnapshot(days, completed, w.maxStreak, spentCents / 100.0, focusMinutes / 60.0,
+                List.copyOf(labels), List.copyOf(tasksPerDay), List.copyOf(productivity), List.copyOf(moods),
+                List.copyOf(weekDays), List.copyOf(weekScores), spendingByCategory(w, first));
+    }
+
+    // Categories with spending in the range, largest first
+    private static Map<String, Double> spendingByCategory(Window w, int first) {
+        List<Map.Entry<String, Long>> totals = new ArrayList<>();
+        for (int c = 0; c < w.categoryCents.length; c++) {
+            long sum = 0;
+            for (int i = first; i <= MAX_DAYS; i++) sum += w.categoryCents[c][i];
+            if (sum > 0) totals.add(Map.entry(w.categories.get(c), sum));
+        }
+        totals.sort(Map.Entry.<String, Long>comparingByValue().reversed());
+        Map<String, Double> byCategory = new LinkedHashMap<>();
+        for (Map.Entry<String, Long> e : totals) byCategory.put(e.getKey(), e.getValue() / 100.0);
+        return Collections.unmodifiableMap(byCategory);
+    }
+
+    private static double activityScore(Window w, int i) {
+        double score = 0;
+        // Habits completed (20 points each, max 60)
+        score += Math.min(60, w.habitsDone[i] * 20);
+        // Events scheduled (5 points each, max 25)
+        score += Math.min(25, w.eventCount[i] * 5);
+        // Tasks completed on this day (3 points each, max 15)
+        score += Math.min(15, w.tasksDone[i] * 3);
+        return score;
+    }
+
+    private static int moodValue(String mood) {
+        if (mood == null)
+            return 3; // Default to "Good"
+        return switch (mood.toLowerCase()) {
+            case "awesome" -> 4;
+            case "good" -> 3;
+            case "tired" -> 2;
+            case "stressed" -> 1;
+            default -> 3;
+        };
+    }
+}
@@ -0,0 +1,256 @@
+package com.focussphere.db;
+
+import com.focussphere.model.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Asynchronous counterpart to {@link DatabaseManager}. Every mutation runs on
+ * one writer thread, so writes are applied in submission order; reads run on
+ * a small reader pool. Views consume the futures with
+ * {@code thenAcceptAsync(..., Platform::runLater)} so the FX thread never
+ * waits on SQLite.
+ */
+public final class AsyncDatabase {
+
+    // One connection stays free for the writer.
+    private static final int READER_THREADS = 3;
+
+    private static final ScheduledExecutorService writer =
+            Executors.newSingleThreadScheduledExecutor(daemon("db-writer"));
+    private static final ExecutorService readers =
+            Executors.newFixedThreadPool(READER_THREADS, daemon("db-reader"));
+
+    private AsyncDatabase() {}
+
+    // =================== CORE ===================
+    public static <T> CompletableFuture<T> read(Supplier<T> query) {
+        return CompletableFuture.supplyAsync(query, readers);
+    }
+
+    public static <T> CompletableFuture<T> write(Supplier<T> mutation) {
+        return CompletableFuture.supplyAsync(mutation, writer);
+    }
+
+    public static CompletableFuture<Void> write(Runnable mutation) {
+        return CompletableFuture.runAsync(mutation, writer);
+    }
+
+    /** The single writer thread, for components that schedule deferred writes. */
+    static ScheduledExecutorService writer() {
+        return writer;
+    }
+
+    /** Let queued writes finish, then stop both executors. */
+    public static void shutdown() {
+        writer.shutdown();
+        readers.shutdown();
+        try {
+            writer.awaitTermination(5, TimeUnit.SECONDS);
+            readers.awaitTermination(2, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // =================== INIT ===================
+    /** Create or migrate the schema on the writer thread, ahead of any queued write. */
+    public static CompletableFuture<Void> initializeAsync() {
+        return write(DatabaseManager::initialize);
+    }
+
+    // =================== TASKS ===================
+    public static CompletableFuture<Integer> addTaskAsync(Task t) {
+        return write(() -> DatabaseManager.addTask(t));
+    }
+
+    public static CompletableFuture<List<Task>> getAllTasksAsync() {
+        return read(DatabaseManager::getAllTasks);
+    }
+
+    public static CompletableFuture<List<Task>> getTasksPageAsync(Task after, int limit, TaskFilter filter) {
+        return read(() -> DatabaseManager.getTasksPage(after, limit, filter));
+    }
+
+    public static CompletableFuture<Task> getTaskAsync(int id) {
+        return read(() -> DatabaseManager.getTask(id));
+    }
+
+    public static CompletableFuture<Void> updateTaskCompletedAsync(int id, boolean completed) {
+        return write(() -> DatabaseManager.updateTaskCompleted(id, completed));
+    }
+
+    public static CompletableFuture<Void> deleteTaskAsync(int id) {
+        return write(() -> DatabaseManager.deleteTask(id));
+    }
+
+    public static CompletableFuture<Void> deleteCompletedTasksAsync() {
+        return write(DatabaseManager::deleteCompletedTasks);
+    }
+
+    // =================== NOTES ===================
+    public static CompletableFuture<Integer> addNoteAsync(Note n) {
+        return write(() -> DatabaseManager.addNote(n));
+    }
+
+    public static CompletableFuture<List<Note>> getAllNotesAsync() {
+        return read(DatabaseManager::getAllNotes);
+    }
+
+    public static CompletableFuture<List<Note>> getNotesPageAsync(Note after, int limit) {
+        return read(() -> DatabaseManager.getNotesPage(after, limit));
+    }
+
+    public static CompletableFuture<List<Note>> searchNotesAsync(String query, int limit) {
+        return read(() -> DatabaseManager.searchNotes(query, limit));
+    }
+
+    public static CompletableFuture<Note> getNoteAsync(int id) {
+        return read(() -> DatabaseManager.getNote(id));
+    }
+
+    public static CompletableFuture<Void> updateNoteAsync(Note n) {
+        return write(() -> DatabaseManager.updateNote(n));
+    }
+
+    public static CompletableFuture<Void> deleteNoteAsync(int id) {
+        return write(() -> DatabaseManager.deleteNote(id));
+    }
+
+    // =================== EXPENSES ===================
+    public static CompletableFuture<Integer> addExpenseAsync(Expense e) {
+        return write(() -> DatabaseManager.addExpense(e));
+    }
+
+    public static CompletableFuture<List<Expense>> getAllExpensesAsync() {
+        return read(DatabaseManager::getAllExpenses);
+    }
+
+    public static CompletableFuture<List<Expense>> getExpensesPageAsync(Expense after, int limit) {
+        return read(() -> DatabaseManager.getExpensesPage(after, limit));
+    }
+
+    public static CompletableFuture<Expense> getExpenseAsync(int id) {
+        return read(() -> DatabaseManager.getExpense(id));
+    }
+
+    public static CompletableFuture<Void> deleteExpenseAsync(int id) {
+        return write(() -> DatabaseManager.deleteExpense(id));
+    }
+
+    public static CompletableFuture<Double> getTotalExpensesAsync() {
+        return read(DatabaseManager::getTotalExpenses);
+    }
+
+    // =================== SCHEDULE EVENTS ===================
+    public static CompletableFuture<Integer> addEventAsync(ScheduleEvent ev) {
+        return write(() -> DatabaseManager.addEvent(ev));
+    }
+
+    public static CompletableFuture<List<ScheduleEvent>> getEventsForDateAsync(String date) {
+        return read(() -> DatabaseManager.getEventsForDate(date));
+    }
+
+    public static CompletableFuture<List<ScheduleEvent>> getEventsBetweenAsync(String from, String to) {
+        return read(() -> DatabaseManager.getEventsBetween(from, to));
+    }
+
+    public static CompletableFuture<Map<String, DayEventStats>> getEventStatsPerDayAsync(String from, String to) {
+        return read(() -> DatabaseManager.getEventStatsPerDay(from, to));
+    }
+
+    public static CompletableFuture<Void> deleteEventAsync(int id) {
+        return write(() -> DatabaseManager.deleteEvent(id));
+    }
+
+    public static CompletableFuture<Integer> countEventsTodayAsync() {
+        return read(DatabaseManager::countEventsToday);
+    }
+
+    // =================== HABITS ===================
+    public static CompletableFuture<Integer> addHabitAsync(Habit h) {
+        return write(() -> DatabaseManager.addHabit(h));
+    }
+
+    public static CompletableFuture<List<Habit>> getAllHabitsAsync() {
+        return read(DatabaseManager::getAllHabits);
+    }
+
+    public static CompletableFuture<Void> setHabitDayAsync(int habitId, String day, boolean completed) {
+        return write(() -> DatabaseManager.setHabitDay(habitId, day, completed));
+    }
+
+    public static CompletableFuture<Map<String, Integer>> countHabitCompletionsPerDayAsync(String from, String to) {
+        return read(() -> DatabaseManager.countHabitCompletionsPerDay(from, to));
+    }
+
+    public static CompletableFuture<Void> deleteHabitAsync(int id) {
+        return write(() -> DatabaseManager.deleteHabit(id));
+    }
+
+    // =================== SETTINGS ===================
+    public static CompletableFuture<Void> saveSettingAsync(String key, String value) {
+        return write(() -> DatabaseManager.saveSetting(key, value));
+    }
+
+    public static CompletableFuture<String> getSettingAsync(String key) {
+        return read(() -> DatabaseManager.getSetting(key));
+    }
+
+    // =================== MOODS ===================
+    public static CompletableFuture<Void> logMoodAsync(String mood) {
+        return write(() -> DatabaseManager.logMood(mood));
+    }
+
+    public static CompletableFuture<String> getLatestMoodAsync() {
+        return read(DatabaseManager::getLatestMood);
+    }
+
+    // =================== SEARCH ===================
+    public static CompletableFuture<List<SearchResult>> searchAsync(String query, int limit) {
+        return read(() -> DatabaseManager.search(query, limit));
+    }
+
+    // =================== STATS HELPERS ===================
+    public static CompletableFuture<DashboardSnapshot> getDashboardSnapshotAsync() {
+        return read(DatabaseManager::getDashboardSnapshot);
+    }
+
+    public static CompletableFuture<Integer> countPendingTasksAsync() {
+        return read(DatabaseManager::countPendingTasks);
+    }
+
+    public static CompletableFuture<Integer> countCompletedTasksAsync() {
+        return read(DatabaseManager::countCompletedTasks);
+    }
+
+    public static CompletableFuture<Integer> countOverdueTasksAsync() {
+        return read(DatabaseManager::countOverdueTasks);
+    }
+
+    public static CompletableFuture<Integer> countHighPriorityTasksAsync() {
+        return read(DatabaseManager::countHighPriorityTasks);
+    }
+
+    public static CompletableFuture<Void> wipeAllDataAsync() {
+        return write(DatabaseManager::wipeAllData);
+    }
+
+    private static ThreadFactory daemon(String name) {
+        AtomicInteger n = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, name + "-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+}
@@ -0,0 +1,178 @@
+package com.focussphere.db;
+
+import com.focussphere.model.Note;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Debounced autosave for notes open in the editor. An edit only records the
+ * latest text; one timer per note on the AsyncDatabase writer thread saves
+ * it once typing pauses for {@value #DEBOUNCE_MS} ms, and at the latest
+ * {@value #MAX_LATENCY_MS} ms after the first unsaved edit. A save writes
+ * only the fields that differ from the last saved text, and nothing at all
+ * if the edits were undone. Text counts as saved only once the write has
+ * succeeded; after a failure it stays unsaved for the next edit or flush.
+ */
+public final class AutosaveService {
+
+    private static final long DEBOUNCE_MS = 600;
+    private static final long MAX_LATENCY_MS = 5000;
+
+    private static final class Doc {
+        final int id;
+        String savedTitle, savedContent; // null when not known
+        String title, content;           // latest edit; title is null when clean
+        long edits;                      // counts edits, to spot one made during a save
+        long firstEdit, lastEdit;
+        boolean timerArmed;
+        CompletableFuture<Void> saved = new CompletableFuture<>();
+
+        Doc(int id) { this.id = id; }
+    }
+
+    private static final Object lock = new Object();
+    private static final Map<Integer, Doc> docs = new HashMap<>();
+
+    private AutosaveService() {}
+
+    /** Remember {@code n} as saved, so re-setting its text is not an edit. */
+    public static void open(Note n) {
+        synchronized (lock) {
+            docs.values().removeIf(d -> d.title == null && d.id != n.getId());
+            Doc d = docs.computeIfAbsent(n.getId(), Doc::new);
+            if (d.title == null) {
+                d.savedTitle = n.getTitle();
+                d.savedContent = n.getContent();
+            }
+        }
+    }
+
+    /**
+     * Record the editor's current text for note {@code id}. The returned
+     * future completes when this edit has been saved; later edits before the
+     * save share it.
+     */
+    public static CompletableFuture<Void> edit(int id, String title, String content) {
+        long now = System.nanoTime();
+        synchronized (lock) {
+            Doc d = docs.computeIfAbsent(id, Doc::new);
+            if (d.title == null) d.firstEdit = now;
+            d.title = title;
+            d.content = content;
+            d.edits++;
+            d.lastEdit = now;
+            if (!d.timerArmed) {
+                d.timerArmed = true;
+                schedule(d, DEBOUNCE_MS);
+            }
+            return d.saved;
+        }
+    }
+
+    /** Save note {@code id} now if it has unsaved edits. */
+    public static CompletableFuture<Void> flush(int id) {
+        return AsyncDatabase.write(() -> {
+            Doc d;
+            synchronized (lock) {
+                d = docs.get(id);
+            }
+            if (d != null) save(d);
+        });
+    }
+
+    /** Save every note with unsaved edits; used on view change and exit. */
+    public static CompletableFuture<Void> flushAll() {
+        return AsyncDatabase.write(() -> {
+            List<Doc> all;
+            synchronized (lock) {
+                all = new ArrayList<>(docs.values());
+            }
+            all.forEach(AutosaveService::save);
+        });
+    }
+
+    // =================== DAO HOOKS ===================
+    /** Drop unsaved edits of a note that is being deleted. */
+    static void discard(int id) {
+        Doc d;
+        synchronized (lock) {
+            d = docs.remove(id);
+        }
+        if (d != null) d.saved.complete(null);
+    }
+
+    static void discardAll() {
+        List<Doc> all;
+        synchronized (lock) {
+            all = new ArrayList<>(docs.values());
+            docs.clear();
+        }
+        all.forEach(d -> d.saved.complete(null));
+    }
+
+    // =================== TIMER ===================
+    // One pending task per note: while typing continues it re-arms itself
+    // for the remaining time instead of being cancelled per keystroke.
+    private static void schedule(Doc d, long delayMs) {
+        AsyncDatabase.writer().schedule(() -> fire(d), delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    private static void fire(Doc d) {
+        synchronized (lock) {
+            if (docs.get(d.id) != d || d.title == null) {
+                d.timerArmed = false;
+                return;
+            }
+            long due = Math.min(d.lastEdit + TimeUnit.MILLISECONDS.toNanos(DEBOUNCE_MS),
+                    d.firstEdit + TimeUnit.MILLISECONDS.toNanos(MAX_LATENCY_MS));
+            long wait = due - System.nanoTime();
+            if (wait > 0) {
+                schedule(d, Math.max(1, TimeUnit.NANOSECONDS.toMillis(wait)));
+                return;
+            }
+            d.timerArmed = false;
+        }
+        save(d);
+    }
+
+    // Runs on the writer thread only, so saves of one note never interleave.
+    // Edits made while the write runs get the next future and stay unsaved.
+    private static void save(Doc d) {
+        String title, content, newTitle, newContent;
+        long edits;
+        CompletableFuture<Void> done;
+        synchronized (lock) {
+            if (d.title == null) return;
+            newTitle = d.title;
+            newContent = d.content;
+            title = Objects.equals(newTitle, d.savedTitle) ? null : newTitle;
+            content = Objects.equals(newContent, d.savedContent) ? null : newContent;
+            edits = d.edits;
+            done = d.saved;
+            d.saved = new CompletableFuture<>();
+        }
+        try {
+            if (title != null || content != null) DatabaseManager.updateNoteFields(d.id, title, content);
+        } catch (SQLException e) {
+            e.printStackTrace();
+            done.completeExceptionally(e);
+            return;
+        }
+        synchronized (lock) {
+            d.savedTitle = newTitle;
+            d.savedContent = newContent;
+            if (d.edits == edits) {
+                d.title = null;
+                d.content = null;
+            }
+        }
+        done.complete(null);
+    }
+}
@@ -0,0 +1,35 @@
+package com.focussphere.db;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+/**
+ * Publishes every committed DatabaseManager write as a {@link DataChange}, so
+ * views can patch the affected rows instead of reloading. Changes are
+ * published after the entity's cache was invalidated, so a listener's reads
+ * see the new data. Views subscribe with {@code Platform::runLater} as the
+ * executor to be called on the FX thread.
+ */
+public final class ChangeBus {
+
+    private record Subscriber(Consumer<DataChange> listener, Executor executor) {}
+
+    private static final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+    private ChangeBus() {}
+
+    /** Deliver every future change to {@code listener} on {@code executor}; returns an unsubscribe action. */
+    public static Runnable subscribe(Consumer<DataChange> listener, Executor executor) {
+        Subscriber s = new Subscriber(listener, executor);
+        subscribers.add(s);
+        return () -> subscribers.remove(s);
+    }
+
+    static void publish(DataChange change) {
+        for (Subscriber s : subscribers) {
+            s.executor().execute(() -> s.listener().accept(change));
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package com.focussphere.db;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Expenses and schedule events as primitive columns for aggregation: epoch
+ * day {@code int[]}, expense cents or event minutes {@code long[]} and
+ * dictionary-coded expense categories {@code byte[]}. A scan is a tight loop over
+ * arrays, without a row object or date string per record, so multi-year
+ * group-bys take microseconds. Days come from the epoch-day columns; rows
+ * with no valid date are kept but never fall in a range.
+ * <p>
+ * The columns follow the DAO through {@link #apply}: deleted rows are
+ * removed, created and updated rows are re-read by id, and a reset reloads
+ * the table. Changes are only queued by the writer and applied by the next
+ * scan, so writes never wait for a scan.
+ */
+public final class ColumnStore {
+
+    private static final int NO_DAY = Integer.MIN_VALUE;
+    private static final int MAX_CATEGORIES = 256;
+    private static final String OTHER = "Other";
+
+    private static final String EXPENSE_COLUMNS =
+            "SELECT id, day, CAST(ROUND(amount * 100) AS INTEGER), category FROM expenses";
+
+    private static final String EVENT_COLUMNS =
+            "SELECT id, day, " + DatabaseManager.EVENT_MINUTES + " FROM schedule_events";
+
+    /** Growable parallel columns with swap-remove by row id. */
+    private static final class Table {
+        final String selectAll;
+        final boolean categorized;
+        int size;
+        int[] ids = new int[64];
+        int[] days = new int[64];
+        long[] values = new long[64];
+        byte[] categories;
+        final Map<Integer, Integer> rowOf = new HashMap<>();
+        boolean loaded;
+        final ConcurrentLinkedQueue<DataChange> pending = new ConcurrentLinkedQueue<>();
+
+        Table(String selectAll, boolean categorized) {
+            this.selectAll = selectAll;
+            this.categorized = categorized;
+            if (categorized) categories = new byte[64];
+        }
+
+        void add(int id, int day, long value, byte category) {
+            if (size == ids.length) {
+                int n = size * 2;
+                ids = Arrays.copyOf(ids, n);
+                days = Arrays.copyOf(days, n);
+                values = Arrays.copyOf(values, n);
+                if (categorized) categories = Arrays.copyOf(categories, n);
+            }
+            ids[size] = id;
+            days[size] = day;
+            values[size] = value;
+            if (categorized) categories[size] = category;
+            rowOf.put(id, size++);
+        }
+
+        void remove(int id) {
+            Integer row = rowOf.remove(id);
+            if (row == null) return;
+            int last = --size;
+            if (row != last) {
+                ids[row] = ids[last];
+                days[row] = days[last];
+                values[row] = values[last];
+                if (categorized) categories[row] = categories[last];
+                rowOf.put(ids[row], row);
+            }
+        }
+
+        void clear() {
+            size = 0;
+            rowOf.clear();
+        }
+    }
+
+    private static final Table expenses = new Table(EXPENSE_COLUMNS, true);
+    private static final Table events = new Table(EVENT_COLUMNS, false);
+
+    // Category dictionary shared by all expense rows; codes are never reused
+    private static final List<String> categoryNames = new ArrayList<>();
+    private static final Map<String, Integer> categoryCodes = new HashMap<>();
+
+    private ColumnStore() {}
+
+    // =================== EXPENSES ===================
+    /** Cents spent per day in [fromDay, toDay] (epoch days); index 0 is fromDay. */
+    public static synchronized long[] expenseCentsPerDay(long fromDay, long toDay) {
+        sync(expenses);
+        return sumPerDay(expenses, fromDay, toDay);
+    }
+
+    /**
+     * Cents spent per category and day in [fromDay, toDay]: row {@code c} is
+     * the category {@code categories().get(c)}, column 0 is fromDay.
+     */
+    public static synchronized long[][] expenseCentsPerCategoryPerDay(long fromDay, long toDay) {
+        sync(expenses);
+        long[][] sums = new long[categoryNames.size()][span(fromDay, toDay)];
+        int[] days = expenses.days;
+        long[] cents = expenses.values;
+        byte[] cats = expenses.categories;
+        for (int i = 0, n = expenses.size; i < n; i++) {
+            int d = days[i];
+            if (d >= fromDay && d <= toDay) sums[cats[i] & 0xFF][(int) (d - fromDay)] += cents[i];
+        }
+        return sums;
+    }
+
+    /** Category names by code, including categories no longer in use. */
+    public static synchronized List<String> categories() {
+        sync(expenses);
+        return List.copyOf(categoryNames);
+    }
+
+    // =================== EVENTS ===================
+    /** Number of events per day in [fromDay, toDay]; index 0 is fromDay. */
+    public static synchronized int[] eventCountPerDay(long fromDay, long toDay) {
+        sync(events);
+        int[] counts = new int[span(fromDay, toDay)];
+        int[] days = events.days;
+        for (int i = 0, n = events.size; i < n; i++) {
+            int d = days[i];
+            if (d >= fromDay && d <= toDay) counts[(int) (d - fromDay)]++;
+        }
+        return counts;
+    }
+
+    /** Scheduled minutes per day in [fromDay, toDay]; index 0 is fromDay. */
+    public static synchronized long[] eventMinutesPerDay(long fromDay, long toDay) {
+        sync(events);
+        return sumPerDay(events, fromDay, toDay);
+    }
+
+    // =================== DAO HOOK ===================
+    /** Queue a committed change; cheap enough to call on the writer thread. */
+    static void apply(DataChange change) {
+        switch (change.entity()) {
+            case EXPENSE -> expenses.pending.add(change);
+            case EVENT -> events.pending.add(change);
+            default -> {}
+        }
+    }
+
+    // =================== SCANS ===================
+    private static long[] sumPerDay(Table t, long fromDay, long toDay) {
+        long[] sums = new long[span(fromDay, toDay)];
+        int[] days = t.days;
+        long[] values = t.values;
+        for (int i = 0, n = t.size; i < n; i++) {
+            int d = days[i];
+            if (d >= fromDay && d <= toDay) sums[(int) (d - fromDay)] += values[i];
+        }
+        return sums;
+    }
+
+    private static int span(long fromDay, long toDay) {
+        return (int) Math.max(0, toDay - fromDay + 1);
+    }
+
+    // =================== LOADING ===================
+    // Apply queued changes, or load the whole table on first use and after a reset.
+    // A failed load leaves the table unloaded, so the next scan reloads it.
+    private static void sync(Table t) {
+        List<Integer> reread = new ArrayList<>();
+        boolean reset = !t.loaded;
+        for (DataChange c; (c = t.pending.poll()) != null; ) {
+            switch (c.kind()) {
+                case RESET -> reset = true;
+                case DELETED -> t.remove(c.id());
+                case CREATED, UPDATED -> reread.add(c.id());
+            }
+        }
+        if (reset) {
+            t.loaded = load(t, t.selectAll, null);
+            return;
+        }
+        for (int id : reread) {
+            t.remove(id);
+            if (!load(t, t.selectAll + " WHERE id=?", id)) {
+                t.loaded = false; // the row is missing now; reload it all next time
+                return;
+            }
+        }
+    }
+
+    // False if the query failed; rows read before the failure are kept
+    private static boolean load(Table t, String sql, Integer id) {
+        if (id == null) t.clear();
+        try (PooledConnection c = DatabaseManager.getConnection()) {
+            PreparedStatement p = c.prepare(sql);
+            if (id != null) p.setInt(1, id);
+            try (ResultSet r = p.executeQuery()) {
+                while (r.next()) {
+                    int day = r.getInt(2);
+                    if (r.wasNull()) day = NO_DAY;
+                    byte category = t.categorized ? categoryCode(r.getString(4)) : 0;
+                    t.add(r.getInt(1), day, r.getLong(3), category);
+                }
+            }
+            return true;
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    // Past the dictionary's capacity, new categories are counted as "Other"
+    private static byte categoryCode(String name) {
+        String key = name == null || name.isBlank() ? OTHER : name;
+        Integer code = categoryCodes.get(key);
+        if (code == null) {
+            if (categoryNames.size() < MAX_CATEGORIES - 1 || key.equals(OTHER)) {
+                code = categoryNames.size();
+                categoryNames.add(key);
+            } else {
+                code = categoryCodes.computeIfAbsent(OTHER, k -> {
+                    categoryNames.add(OTHER);
+                    return categoryNames.size() - 1;
+                });
+            }
+            categoryCodes.put(key, code);
+        }
+        return (byte) (int) code;
+    }
+}
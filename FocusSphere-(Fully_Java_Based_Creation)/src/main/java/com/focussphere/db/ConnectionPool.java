@@ -0,0 +1,87 @@
+package com.focussphere.db;
+
+import org.sqlite.SQLiteConfig;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fixed set of long-lived SQLite connections shared by DatabaseManager.
+ * Connections are opened lazily, configured once (WAL, synchronous=NORMAL,
+ * busy timeout) and handed out as {@link PooledConnection} leases, a new one
+ * per checkout, that give the connection back on close.
+ */
+public class ConnectionPool {
+
+    private static final int BUSY_TIMEOUT_MS = 5000;
+    private static final long ACQUIRE_TIMEOUT_SECONDS = 30;
+
+    private final String url;
+    private final int maxSize;
+    private final BlockingQueue<PooledConnection.Slot> idle;
+    private final List<PooledConnection.Slot> all = new ArrayList<>();
+    private boolean closed;
+
+    public ConnectionPool(String url, int maxSize) {
+        this.url = url;
+        this.maxSize = maxSize;
+        this.idle = new ArrayBlockingQueue<>(maxSize);
+    }
+
+    /** Borrow a connection; close the returned lease to give it back. */
+    public PooledConnection acquire() throws SQLException {
+        PooledConnection.Slot c = idle.poll();
+        if (c != null) return new PooledConnection(this, c);
+
+        synchronized (this) {
+            if (closed) throw new SQLException("Connection pool is closed");
+            if (all.size() < maxSize) {
+                PooledConnection.Slot fresh = new PooledConnection.Slot(open());
+                all.add(fresh);
+                return new PooledConnection(this, fresh);
+            }
+        }
+
+        try {
+            c = idle.poll(ACQUIRE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a connection", e);
+        }
+        if (c == null) throw new SQLException("Timed out waiting for a database connection");
+        return new PooledConnection(this, c);
+    }
+
+    void release(PooledConnection.Slot c) {
+        synchronized (this) {
+            if (closed) {
+                c.closeQuietly();
+                return;
+            }
+        }
+        idle.offer(c);
+    }
+
+    /** Close every connection and its cached statements. */
+    public synchronized void close() {
+        closed = true;
+        idle.clear();
+        for (PooledConnection.Slot c : all) c.closeQuietly();
+        all.clear();
+    }
+
+    private Connection open() throws SQLException {
+        SQLiteConfig config = new SQLiteConfig();
+        config.setJournalMode(SQLiteConfig.JournalMode.WAL);
+        config.setSynchronous(SQLiteConfig.SynchronousMode.NORMAL);
+        config.setBusyTimeout(BUSY_TIMEOUT_MS);
+        config.enforceForeignKeys(true);
+        return DriverManager.getConnection(url, config.toProperties());
+    }
+}
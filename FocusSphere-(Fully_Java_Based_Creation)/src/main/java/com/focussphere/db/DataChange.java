@@ -0,0 +1,22 @@
+package com.focussphere.db;
+
+/**
+ * A committed change to one row, published on the {@link ChangeBus}.
+ * {@code id} is the row's id, or 0 for settings, moods and {@link Kind#RESET}.
+ */
+public record DataChange(Entity entity, Kind kind, int id) {
+
+    public enum Entity { TASK, NOTE, HABIT, EXPENSE, EVENT, SETTING, MOOD }
+
+    /** RESET means many rows changed at once; listeners should reload. */
+    public enum Kind { CREATED, UPDATED, DELETED, RESET }
+
+    public static DataChange created(Entity entity, int id) { return new DataChange(entity, Kind.CREATED, id); }
+    public static DataChange updated(Entity entity, int id) { return new DataChange(entity, Kind.UPDATED, id); }
+    public static DataChange deleted(Entity entity, int id) { return new DataChange(entity, Kind.DELETED, id); }
+    public static DataChange reset(Entity entity)           { return new DataChange(entity, Kind.RESET, 0); }
+
+    public boolean is(Entity e) {
+        return entity == e;
+    }
+}
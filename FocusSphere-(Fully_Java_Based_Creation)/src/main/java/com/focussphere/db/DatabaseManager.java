@@ -1,404 +1,755 @@
 package com.focussphere.db;
 
+import com.focussphere.db.DataChange.Entity;
 import com.focussphere.model.*;
 import java.sql.*;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public class DatabaseManager {
 
     private static final String DB_URL = "jdbc:sqlite:focussphere.db";
+    private static final int POOL_SIZE = 4;
+
+    private static final ConnectionPool pool = new ConnectionPool(DB_URL, POOL_SIZE);
+
+    // Event length in SQL, as ScheduleEvent.getDurationMinutes computes it: 0 without both times
+    static final String EVENT_MINUTES = "COALESCE(MAX(0, end_minute - start_minute), 0)";
 
     // =================== INIT ===================
+    /** Open the database and bring its schema up to date; the app cannot run without it. */
     public static void initialize() {
-        try (Connection c = getConnection(); Statement s = c.createStatement()) {
-            s.execute("""
-                CREATE TABLE IF NOT EXISTS tasks (
-                    id INTEGER PRIMARY KEY AUTOINCREMENT,
-                    title TEXT NOT NULL,
-                    description TEXT,
-                    due_date TEXT,
-                    priority TEXT DEFAULT 'Medium',
-                    completed INTEGER DEFAULT 0,
-                    tags TEXT,
-                    recurring TEXT,
-                    created_at TEXT DEFAULT (datetime('now','localtime'))
-                )""");
-
-            s.execute("""
-                CREATE TABLE IF NOT EXISTS notes (
-                    id INTEGER PRIMARY KEY AUTOINCREMENT,
-                    title TEXT NOT NULL,
-                    content TEXT,
-                    created_at TEXT DEFAULT (datetime('now','localtime')),
-                    updated_at TEXT DEFAULT (datetime('now','localtime'))
-                )""");
-
-            s.execute("""
-                CREATE TABLE IF NOT EXISTS expenses (
-                    id INTEGER PRIMARY KEY AUTOINCREMENT,
-                    description TEXT NOT NULL,
-                    amount REAL NOT NULL,
-                    date TEXT,
-                    category TEXT
-                )""");
-
-            s.execute("""
-                CREATE TABLE IF NOT EXISTS schedule_events (
-                    id INTEGER PRIMARY KEY AUTOINCREMENT,
-                    title TEXT NOT NULL,
-                    start_time TEXT,
-                    end_time TEXT,
-                    color TEXT DEFAULT '#6366f1',
-                    date TEXT
-                )""");
-
-            s.execute("""
-                CREATE TABLE IF NOT EXISTS habits (
-                    id INTEGER PRIMARY KEY AUTOINCREMENT,
-                    name TEXT NOT NULL,
-                    completed_days TEXT DEFAULT '',
-                    created_at TEXT DEFAULT (datetime('now','localtime'))
-                )""");
-
-            s.execute("""
-                CREATE TABLE IF NOT EXISTS settings (
-                    key TEXT PRIMARY KEY,
-                    value TEXT
-                )""");
-
-            s.execute("""
-                CREATE TABLE IF NOT EXISTS moods (
-                    id INTEGER PRIMARY KEY AUTOINCREMENT,
-                    mood TEXT NOT NULL,
-                    logged_at TEXT DEFAULT (datetime('now','localtime'))
-                )""");
-
+        try (PooledConnection c = getConnection()) {
+            SchemaMigrator.migrate(c);
         } catch (SQLException e) {
-            e.printStackTrace();
+            throw new IllegalStateException("Could not open the database", e);
         }
     }
 
-    private static Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(DB_URL);
+    static PooledConnection getConnection() throws SQLException {
+        return pool.acquire();
+    }
+
+    /** Close pooled connections; called once on application exit. */
+    public static void shutdown() {
+        pool.close();
     }
 
     // =================== TASKS ===================
     public static int addTask(Task t) {
-        String sql = "INSERT INTO tasks(title,description,due_date,priority,tags,recurring) VALUES(?,?,?,?,?,?)";
-        try (Connection c = getConnection();
-             PreparedStatement p = c.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+        String sql = "INSERT INTO tasks(title,description,due_date,due_day,priority,tags,recurring) VALUES(?,?,?,?,?,?,?)";
+        try (PooledConnection c = getConnection()) {
+            PreparedStatement p = c.prepareInsert(sql);
             p.setString(1, t.getTitle());
             p.setString(2, t.getDescription());
             p.setString(3, t.getDueDate());
-            p.setString(4, t.getPriority());
-            p.setString(5, t.getTags());
-            p.setString(6, t.getRecurring());
+            setDay(p, 4, t.getDueDay());
+            p.setString(5, t.getPriority());
+            p.setString(6, t.getTags());
+            p.setString(7, t.getRecurring());
             p.executeUpdate();
-            ResultSet rs = p.getGeneratedKeys();
-            if (rs.next()) return rs.getInt(1);
+            int id = generatedKey(p);
+            changed(DataChange.created(Entity.TASK, id));
+            return id;
         } catch (SQLException e) { e.printStackTrace(); }
         return -1;
     }
 
     public static List<Task> getAllTasks() {
-        List<Task> list = new ArrayList<>();
-        try (Connection c = getConnection();
-             Statement s = c.createStatement();
-             ResultSet r = s.executeQuery(
-                 "SELECT * FROM tasks ORDER BY completed ASC, created_at DESC")) {
-            while (r.next()) {
-                Task t = new Task();
-                t.setId(r.getInt("id"));
-                t.setTitle(r.getString("title"));
-                t.setDescription(r.getString("description"));
-                t.setDueDate(r.getString("due_date"));
-                t.setPriority(r.getString("priority"));
-                t.setCompleted(r.getInt("completed") == 1);
-                t.setTags(r.getString("tags"));
-                t.setRecurring(r.getString("recurring"));
-                t.setCreatedAt(r.getString("created_at"));
-                list.add(t);
+        return EntityCache.TASKS.get("all", () -> {
+            try (Stream<Task> tasks = streamTasks(TaskFilter.ALL)) {
+                return tasks.collect(Collectors.toList());
+            }
+        }, EntityCache.each(Task::copy));
+    }
+
+    /**
+     * Up to {@code limit} tasks following {@code after} (null for the first
+     * page) in list order: pending before completed, newest first. Each
+     * completion group is read with an index seek from the last row's key, so
+     * deep pages cost the same as the first.
+     */
+    public static List<Task> getTasksPage(Task after, int limit, TaskFilter filter) {
+        String key = "page:" + filter + ":" + limit
+                + (after == null ? "" : ":" + after.isCompleted() + ":" + after.getCreatedAt() + ":" + after.getId());
+        return EntityCache.TASKS.get(key, () -> loadTasksPage(after, limit, filter),
+                EntityCache.each(Task::copy));
+    }
+
+    private static List<Task> loadTasksPage(Task after, int limit, TaskFilter filter) {
+        List<Task> page = new ArrayList<>();
+        try (PooledConnection c = getConnection()) {
+            for (int group = 0; group <= 1 && page.size() < limit; group++) {
+                boolean completed = group == 1;
+                if (!filter.includes(completed)) continue;
+                if (after != null && after.isCompleted() && !completed) continue;
+
+                PreparedStatement p;
+                if (after != null && after.isCompleted() == completed) {
+                    p = c.prepare("""
+                        SELECT * FROM tasks WHERE completed=? AND (created_at, id) < (?, ?)
+                        ORDER BY created_at DESC, id DESC LIMIT ?""");
+                    p.setInt(1, group);
+                    p.setString(2, after.getCreatedAt());
+                    p.setInt(3, after.getId());
+                    p.setInt(4, limit - page.size());
+                } else {
+                    p = c.prepare("SELECT * FROM tasks WHERE completed=? ORDER BY created_at DESC, id DESC LIMIT ?");
+                    p.setInt(1, group);
+                    p.setInt(2, limit - page.size());
+                }
+                try (ResultSet r = p.executeQuery()) {
+                    while (r.next()) page.add(mapTask(r));
+                }
             }
         } catch (SQLException e) { e.printStackTrace(); }
-        return list;
+        return page;
+    }
+
+    /** Every task matching {@code filter}, in list order, fetched lazily; close the stream. */
+    public static Stream<Task> streamTasks(TaskFilter filter) {
+        String where = switch (filter) {
+            case ALL -> "";
+            case ACTIVE -> " WHERE completed=0";
+            case COMPLETED -> " WHERE completed=1";
+        };
+        return stream("SELECT * FROM tasks" + where + " ORDER BY completed ASC, created_at DESC, id DESC",
+                DatabaseManager::mapTask);
+    }
+
+    public static Task getTask(int id) {
+        return EntityCache.TASKS.get("task:" + id, () -> loadTask(id), Task::copy);
+    }
+
+    private static Task loadTask(int id) {
+        try (PooledConnection c = getConnection()) {
+            PreparedStatement p = c.prepare("SELECT * FROM tasks WHERE id=?");
+            p.setInt(1, id);
+            try (ResultSet r = p.executeQuery()) {
+                if (r.next()) return mapTask(r);
+            }
+        } catch (SQLException e) { e.printStackTrace(); }
+        return null;
+    }
+
+    private static Task mapTask(ResultSet r) throws SQLException {
+        Task t = new Task();
+        t.setId(r.getInt("id"));
+        t.setTitle(r.getString("title"));
+        t.setDescription(r.getString("description"));
+        t.setDueDate(r.getString("due_date"), day(r, "due_day"));
+        t.setPriority(r.getString("priority"));
+        t.setCompleted(r.getInt("completed") == 1);
+        t.setTags(r.getString("tags"));
+        t.setRecurring(r.getString("recurring"));
+        t.setCreatedAt(r.getString("created_at"));
+        t.setCompletedAt(r.getString("completed_at"));
+        return t;
     }
 
     public static void updateTaskCompleted(int id, boolean completed) {
-        try (Connection c = getConnection();
-             PreparedStatement p = c.prepareStatement(
-                 "UPDATE tasks SET completed=? WHERE id=?")) {
+        try (PooledConnection c = getConnection()) {
+            // Keep the original time if the task was already completed
+            PreparedStatement p = c.prepare("""
+                UPDATE tasks SET completed=?1,
+                       completed_at = CASE WHEN ?1=0 THEN NULL
+                                           WHEN completed=1 THEN completed_at
+                                           ELSE datetime('now','localtime') END
+                WHERE id=?2""");
             p.setInt(1, completed ? 1 : 0);
             p.setInt(2, id);
             p.executeUpdate();
+            changed(DataChange.updated(Entity.TASK, id));
         } catch (SQLException e) { e.printStackTrace(); }
     }
 
     public static void deleteTask(int id) {
-        try (Connection c = getConnection();
-             PreparedStatement p = c.prepareStatement(
-                 "DELETE FROM tasks WHERE id=?")) {
+        try (PooledConnection c = getConnection()) {
+            PreparedStatement p = c.prepare("DELETE FROM tasks WHERE id=?");
             p.setInt(1, id);
             p.executeUpdate();
+            changed(DataChange.deleted(Entity.TASK, id));
         } catch (SQLException e) { e.printStackTrace(); }
     }
 
     public static void deleteCompletedTasks() {
-        try (Connection c = getConnection();
-             Statement s = c.createStatement()) {
-            s.execute("DELETE FROM tasks WHERE completed=1");
+        try (PooledConnection c = getConnection()) {
+            c.prepare("DELETE FROM tasks WHERE completed=1").executeUpdate();
+            changed(DataChange.reset(Entity.TASK));
         } catch (SQLException e) { e.printStackTrace(); }
     }
 
     // =================== NOTES ===================
     public static int addNote(Note n) {
         String sql = "INSERT INTO notes(title,content) VALUES(?,?)";
-        try (Connection c = getConnection();
-             PreparedStatement p = c.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+        try (PooledConnection c = getConnection()) {
+            PreparedStatement p = c.prepareInsert(sql);
             p.setString(1, n.getTitle());
             p.setString(2, n.getContent());
             p.executeUpdate();
-            ResultSet rs = p.getGeneratedKeys();
-            if (rs.next()) return rs.getInt(1);
+            int id = generatedKey(p);
+            changed(DataChange.created(Entity.NOTE, id));
+            return id;
         } catch (SQLException e) { e.printStackTrace(); }
         return -1;
     }
 
     public static List<Note> getAllNotes() {
+        return EntityCache.NOTES.get("all", () -> {
+            try (Stream<Note> notes = streamNotes()) {
+                return notes.collect(Collectors.toList());
+            }
+        }, EntityCache.each(Note::copy));
+    }
+
+    /** Up to {@code limit} notes after {@code after} (null for the first page), most recently edited first. */
+    public static List<Note> getNotesPage(Note after, int limit) {
+        String key = "page:" + limit + (after == null ? "" : ":" + after.getUpdatedAt() + ":" + after.getId());
+        return EntityCache.NOTES.get(key, () -> loadNotesPage(after, limit),
+                EntityCache.each(Note::copy));
+    }
+
+    private static List<Note> loadNotesPage(Note after, int limit) {
+        List<Note> page = new ArrayList<>();
+        try (PooledConnection c = getConnection()) {
+            PreparedStatement p;
+            if (after != null) {
+                p = c.prepare("""
+                    SELECT * FROM notes WHERE (updated_at, id) < (?, ?)
+                    ORDER BY updated_at DESC, id DESC LIMIT ?""");
+                p.setString(1, after.getUpdatedAt());
+                p.setInt(2, after.getId());
+                p.setInt(3, limit);
+            } else {
+                p = c.prepare("SELECT * FROM notes ORDER BY updated_at DESC, id DESC LIMIT ?");
+                p.setInt(1, limit);
+            }
+            try (ResultSet r = p.executeQuery()) {
+                while (r.next()) page.add(mapNote(r));
+            }
+        } catch (SQLException e) { e.printStackTrace(); }
+        return page;
+    }
+
+    /** Notes whose title or content match {@code query} (word prefixes), best match first. */
+    public static List<Note> searchNotes(String query, int limit) {
+        return EntityCache.NOTES.get("search:" + limit + ":" + query, () -> loadNoteSearch(query, limit),
+                EntityCache.each(Note::copy));
+    }
+
+    private static List<Note> loadNoteSearch(String query, int limit) {
         List<Note> list = new ArrayList<>();
-        try (Connection c = getConnection();
-             Statement s = c.createStatement();
-             ResultSet r = s.executeQuery(
-                 "SELECT * FROM notes ORDER BY updated_at DESC")) {
-            while (r.next()) {
-                Note n = new Note();
-                n.setId(r.getInt("id"));
-                n.setTitle(r.getString("title"));
-                n.setContent(r.getString("content"));
-                n.setCreatedAt(r.getString("created_at"));
-                n.setUpdatedAt(r.getString("updated_at"));
-                list.add(n);
+        String match = toMatchExpression(query);
+        if (match.isEmpty()) return list;
+        try (PooledConnection c = getConnection()) {
+            PreparedStatement p = c.prepare("""
+                SELECT n.* FROM search_index s JOIN notes n ON n.id = s.rowid / 4
+                WHERE search_index MATCH ? AND s.rowid % 4 = 1
+                ORDER BY bm25(search_index, 4.0, 1.0) LIMIT ?""");
+            p.setString(1, match);
+            p.setInt(2, limit);
+            try (ResultSet r = p.executeQuery()) {
+                while (r.next()) list.add(mapNote(r));
             }
         } catch (SQLException e) { e.printStackTrace(); }
         return list;
     }
 
+    /** Every note, most recently edited first, fetched lazily; close the stream. */
+    public static Stream<Note> streamNotes() {
+        return stream("SELECT * FROM notes ORDER BY updated_at DESC, id DESC", DatabaseManager::mapNote);
+    }
+
+    public static Note getNote(int id) {
+        return EntityCache.NOTES.get("note:" + id, () -> loadNote(id), Note::copy);
+    }
+
+    private static Note loadNote(int id) {
+        try (PooledConnection c = getConnection()) {
+            PreparedStatement p = c.prepare("SELECT * FROM notes WHERE id=?");
+            p.setInt(1, id);
+            try (ResultSet r = p.executeQuery()) {
+                if (r.next()) return mapNote(r);
+            }
+        } catch (SQLException e) { e.printStackTrace(); }
+        return null;
+    }
+
+    private static Note mapNote(ResultSet r) throws SQLException {
+        Note n = new Note();
+        n.setId(r.getInt("id"));
+        n.setTitle(r.getString("title"));
+        n.setContent(r.getString("content"));
+        n.setCreatedAt(r.getString("created_at"));
+        n.setUpdatedAt(r.getString("updated_at"));
+        return n;
+    }
+
     public static void updateNote(Note n) {
-        try (Connection c = getConnection();
-             PreparedStatement p = c.prepareStatement(
-                 "UPDATE notes SET title=?,content=?,updated_at=datetime('now','localtime') WHERE id=?")) {
-            p.setString(1, n.getTitle());
-            p.setString(2, n.getContent());
-            p.setInt(3, n.getId());
-            p.executeUpdate();
+        try (PooledConnection c = getConnection()) {
+            updateNote(c, n);
+            changed(DataChange.updated(Entity.NOTE, n.getId()));
         } catch (SQLException e) { e.printStackTrace(); }
     }
 
+    static void updateNote(PooledConnection c, Note n) throws SQLException {
+        PreparedStatement p = c.prepare(
+             "UPDATE notes SET title=?,content=?,updated_at=datetime('now','localtime') WHERE id=?");
+        p.setString(1, n.getTitle());
+        p.setString(2, n.getContent());
+        p.setInt(3, n.getId());
+        p.executeUpdate();
+    }
+
+    /** Autosave write: a null title or content leaves that column as it is. */
+    static void updateNoteFields(int id, String title, String content) throws SQLException {
+        try (PooledConnection c = getConnection()) {
+            PreparedStatement p = c.prepare("UPDATE notes SET title=COALESCE(?,title),content=COALESCE(?,content)," +
+                    "updated_at=datetime('now','localtime') WHERE id=?");
+            p.setString(1, title);
+            p.setString(2, content);
+            p.setInt(3, id);
+            if (p.executeUpdate() > 0) changed(DataChange.updated(Entity.NOTE, id));
+        }
+    }
+
     public static void deleteNote(int id) {
-        try (Connection c = getConnection();
-             PreparedStatement p = c.prepareStatement("DELETE FROM notes WHERE id=?")) {
+        AutosaveService.discard(id);
+        try (PooledConnection c = getConnection()) {
+            PreparedStatement p = c.prepare("DELETE FROM notes WHERE id=?");
             p.setInt(1, id);
             p.executeUpdate();
+            changed(DataChange.deleted(Entity.NOTE, id));
         } catch (SQLException e) { e.printStackTrace(); }
     }
 
     // =================== EXPENSES ===================
     public static int addExpense(Expense e) {
-        String sql = "INSERT INTO expenses(description,amount,date,category) VALUES(?,?,?,?)";
-        try (Connection c = getConnection();
-             PreparedStatement p = c.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+        String sql = "INSERT INTO expenses(description,amount,date,day,category) VALUES(?,?,?,?,?)";
+        try (PooledConnection c = getConnection()) {
+            PreparedStatement p = c.prepareInsert(sql);
             p.setString(1, e.getDescription());
             p.setDouble(2, e.getAmount());
             p.setString(3, e.getDate());
-            p.setString(4, e.getCategory());
+            setDay(p, 4, e.getDay());
+            p.setString(5, e.getCategory());
             p.executeUpdate();
-            ResultSet rs = p.getGeneratedKeys();
-            if (rs.next()) return rs.getInt(1);
+            int id = generatedKey(p);
+            changed(DataChange.created(Entity.EXPENSE, id));
+            return id;
         } catch (SQLException ex) { ex.printStackTrace(); }
         return -1;
     }
 
     public static List<Expense> getAllExpenses() {
-        List<Expense> list = new ArrayList<>();
-        try (Connection c = getConnection();
-             Statement s = c.createStatement();
-             ResultSet r = s.executeQuery(
-                 "SELECT * FROM expenses ORDER BY date DESC")) {
-            while (r.next()) {
-                Expense e = new Expense();
-                e.setId(r.getInt("id"));
-                e.setDescription(r.getString("description"));
-                e.setAmount(r.getDouble("amount"));
-                e.setDate(r.getString("date"));
-                e.setCategory(r.getString("category"));
-                list.add(e);
+        return EntityCache.EXPENSES.get("all", () -> {
+            try (Stream<Expense> expenses = streamExpenses()) {
+                return expenses.collect(Collectors.toList());
+            }
+        }, EntityCache.each(Expense::copy));
+    }
+
+    /** Up to {@code limit} expenses after {@code after} (null for the first page), newest date first. */
+    public static List<Expense> getExpensesPage(Expense after, int limit) {
+        String key = "page:" + limit + (after == null ? "" : ":" + after.getDay() + ":" + after.getId());
+        return EntityCache.EXPENSES.get(key, () -> loadExpensesPage(after, limit),
+                EntityCache.each(Expense::copy));
+    }
+
+    // Dated rows first, then undated ones: a NULL day never compares below a
+    // page boundary, so those rows are paged by id alone
+    private static List<Expense> loadExpensesPage(Expense after, int limit) {
+        List<Expense> page = new ArrayList<>();
+        boolean undated = after != null && after.getDay() == EpochTime.NO_DAY;
+        try (PooledConnection c = getConnection()) {
+            PreparedStatement p;
+            if (!undated) {
+                if (after != null) {
+                    p = c.prepare("""
+                        SELECT * FROM expenses WHERE (day, id) < (?, ?)
+                        ORDER BY day DESC, id DESC LIMIT ?""");
+                    p.setLong(1, after.getDay());
+                    p.setInt(2, after.getId());
+                    p.setInt(3, limit);
+                } else {
+                    p = c.prepare("SELECT * FROM expenses WHERE day IS NOT NULL ORDER BY day DESC, id DESC LIMIT ?");
+                    p.setInt(1, limit);
+                }
+                try (ResultSet r = p.executeQuery()) {
+                    while (r.next()) page.add(mapExpense(r));
+                }
+            }
+            if (page.size() < limit) {
+                if (undated) {
+                    p = c.prepare("SELECT * FROM expenses WHERE day IS NULL AND id < ? ORDER BY id DESC LIMIT ?");
+                    p.setInt(1, after.getId());
+                    p.setInt(2, limit - page.size());
+                } else {
+                    p = c.prepare("SELECT * FROM expenses WHERE day IS NULL ORDER BY id DESC LIMIT ?");
+                    p.setInt(1, limit - page.size());
+                }
+                try (ResultSet r = p.executeQuery()) {
+                    while (r.next()) page.add(mapExpense(r));
+                }
             }
         } catch (SQLException e) { e.printStackTrace(); }
-        return list;
+        return page;
+    }
+
+    /** Every expense, newest date first and undated last, fetched lazily; close the stream. */
+    public static Stream<Expense> streamExpenses() {
+        return stream("SELECT * FROM expenses ORDER BY day DESC, id DESC", DatabaseManager::mapExpense);
+    }
+
+    public static Expense getExpense(int id) {
+        return EntityCache.EXPENSES.get("expense:" + id, () -> loadExpense(id), Expense::copy);
+    }
+
+    private static Expense loadExpense(int id) {
+        try (PooledConnection c = getConnection()) {
+            PreparedStatement p = c.prepare("SELECT * FROM expenses WHERE id=?");
+            p.setInt(1, id);
+            try (ResultSet r = p.executeQuery()) {
+                if (r.next()) return mapExpense(r);
+            }
+        } catch (SQLException e) { e.printStackTrace(); }
+        return null;
+    }
+
+    private static Expense mapExpense(ResultSet r) throws SQLException {
+        Expense e = new Expense();
+        e.setId(r.getInt("id"));
+        e.setDescription(r.getString("description"));
+        e.setAmount(r.getDouble("amount"));
+        e.setDate(r.getString("date"), day(r, "day"));
+        e.setCategory(r.getString("category"));
+        return e;
     }
 
     public static void deleteExpense(int id) {
-        try (Connection c = getConnection();
-             PreparedStatement p = c.prepareStatement("DELETE FROM expenses WHERE id=?")) {
+        try (PooledConnection c = getConnection()) {
+            PreparedStatement p = c.prepare("DELETE FROM expenses WHERE id=?");
             p.setInt(1, id);
             p.executeUpdate();
+            changed(DataChange.deleted(Entity.EXPENSE, id));
         } catch (SQLException e) { e.printStackTrace(); }
     }
 
     public static double getTotalExpenses() {
-        try (Connection c = getConnection();
-             Statement s = c.createStatement();
-             ResultSet r = s.executeQuery("SELECT COALESCE(SUM(amount),0) FROM expenses")) {
+        return EntityCache.EXPENSES.get("total", DatabaseManager::loadTotalExpenses);
+    }
+
+    private static double loadTotalExpenses() {
+        try (PooledConnection c = getConnection();
+             ResultSet r = c.prepare("SELECT COALESCE(SUM(amount),0) FROM expenses").executeQuery()) {
             if (r.next()) return r.getDouble(1);
         } catch (SQLException e) { e.printStackTrace(); }
         return 0;
     }
 
+    /** Sum of expenses dated within [from, to]; throws IllegalArgumentException if a bound is not a date. */
+    public static double getExpensesTotalBetween(String from, String to) {
+        return EntityCache.EXPENSES.get("total:" + from + ":" + to, () -> loadExpensesTotalBetween(from, to));
+    }
+
+    private static double loadExpensesTotalBetween(String from, String to) {
+        try (PooledConnection c = getConnection()) {
+            PreparedStatement p = c.prepare(
+                 "SELECT COALESCE(SUM(amount),0) FROM expenses WHERE day BETWEEN ? AND ?");
+            p.setLong(1, queryDay(from));
+            p.setLong(2, queryDay(to));
+            try (ResultSet r = p.executeQuery()) {
+                if (r.next()) return r.getDouble(1);
+            }
+        } catch (SQLException e) { e.printStackTrace(); }
+        return 0;
+    }
+
     // =================== SCHEDULE EVENTS ===================
     public static int addEvent(ScheduleEvent ev) {
-        String sql = "INSERT INTO schedule_events(title,start_time,end_time,color,date) VALUES(?,?,?,?,?)";
-        try (Connection c = getConnection();
-             PreparedStatement p = c.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+        String sql = "INSERT INTO schedule_events(title,start_time,end_time,color,date,day,start_minute,end_minute)"
+                + " VALUES(?,?,?,?,?,?,?,?)";
+        try (PooledConnection c = getConnection()) {
+            PreparedStatement p = c.prepareInsert(sql);
             p.setString(1, ev.getTitle());
             p.setString(2, ev.getStartTime());
             p.setString(3, ev.getEndTime());
             p.setString(4, ev.getColor());
             p.setString(5, ev.getDate());
+            setDay(p, 6, ev.getDay());
+            setMinute(p, 7, EpochTime.parseMinute(ev.getStartTime()));
+            setMinute(p, 8, EpochTime.parseMinute(ev.getEndTime()));
             p.executeUpdate();
-            ResultSet rs = p.getGeneratedKeys();
-            if (rs.next()) return rs.getInt(1);
+            int id = generatedKey(p);
+            changed(DataChange.created(Entity.EVENT, id));
+            return id;
         } catch (SQLException e) { e.printStackTrace(); }
         return -1;
     }
 
     public static List<ScheduleEvent> getEventsForDate(String date) {
+        return getEventsBetween(date, date);
+    }
+
+    /** Events dated within [from, to], ordered by date then start time; both bounds must be dates. */
+    public static List<ScheduleEvent> getEventsBetween(String from, String to) {
+        return EntityCache.EVENTS.get("between:" + from + ":" + to, () -> loadEventsBetween(from, to),
+                EntityCache.each(ScheduleEvent::copy));
+    }
+
+    private static List<ScheduleEvent> loadEventsBetween(String from, String to) {
         List<ScheduleEvent> list = new ArrayList<>();
-        try (Connection c = getConnection();
-             PreparedStatement p = c.prepareStatement(
-                 "SELECT * FROM schedule_events WHERE date=? ORDER BY start_time")) {
-            p.setString(1, date);
-            ResultSet r = p.executeQuery();
-            while (r.next()) {
-                ScheduleEvent e = new ScheduleEvent();
-                e.setId(r.getInt("id"));
-                e.setTitle(r.getString("title"));
-                e.setStartTime(r.getString("start_time"));
-                e.setEndTime(r.getString("end_time"));
-                e.setColor(r.getString("color"));
-                e.setDate(r.getString("date"));
-                list.add(e);
+        try (PooledConnection c = getConnection()) {
+            PreparedStatement p = c.prepare(
+                 "SELECT * FROM schedule_events WHERE day BETWEEN ? AND ? ORDER BY day, start_minute");
+            p.setLong(1, queryDay(from));
+            p.setLong(2, queryDay(to));
+            try (ResultSet r = p.executeQuery()) {
+                while (r.next()) {
+                    ScheduleEvent e = new ScheduleEvent();
+                    e.setId(r.getInt("id"));
+                    e.setTitle(r.getString("title"));
+                    e.setStartTime(r.getString("start_time"), minute(r, "start_minute"));
+                    e.setEndTime(r.getString("end_time"), minute(r, "end_minute"));
+                    e.setColor(r.getString("color"));
+                    e.setDate(r.getString("date"), day(r, "day"));
+                    list.add(e);
+                }
             }
         } catch (SQLException e) { e.printStackTrace(); }
         return list;
     }
 
+    /**
+     * Per-day event count and scheduled minutes within [from, to], with
+     * durations as in {@link ScheduleEvent#getDurationMinutes()}. Days
+     * without events are absent. Both bounds must be dates.
+     */
+    public static Map<String, DayEventStats> getEventStatsPerDay(String from, String to) {
+        return EntityCache.EVENTS.get("stats:" + from + ":" + to, () -> loadEventStatsPerDay(from, to));
+    }
+
+    private static Map<String, DayEventStats> loadEventStatsPerDay(String from, String to) {
+        Map<String, DayEventStats> stats = new TreeMap<>();
+        try (PooledConnection c = getConnection()) {
+            PreparedStatement p = c.prepare("SELECT MIN(date), COUNT(*), SUM(" + EVENT_MINUTES + ")"
+                    + " FROM schedule_events WHERE day BETWEEN ? AND ? GROUP BY day");
+            p.setLong(1, queryDay(from));
+            p.setLong(2, queryDay(to));
+            try (ResultSet r = p.executeQuery()) {
+                while (r.next()) {
+                    String day = r.getString(1);
+                    stats.put(day, new DayEventStats(day, r.getInt(2), r.getInt(3)));
+                }
+            }
+        } catch (SQLException e) { e.printStackTrace(); }
+        return Collections.unmodifiableMap(stats);
+    }
+
     public static void deleteEvent(int id) {
-        try (Connection c = getConnection();
-             PreparedStatement p = c.prepareStatement(
-                 "DELETE FROM schedule_events WHERE id=?")) {
+        try (PooledConnection c = getConnection()) {
+            PreparedStatement p = c.prepare("DELETE FROM schedule_events WHERE id=?");
             p.setInt(1, id);
             p.executeUpdate();
+            changed(DataChange.deleted(Entity.EVENT, id));
         } catch (SQLException e) { e.printStackTrace(); }
     }
 
     public static int countEventsToday() {
-        String today = java.time.LocalDate.now().toString();
-        try (Connection c = getConnection();
-             PreparedStatement p = c.prepareStatement(
-                 "SELECT COUNT(*) FROM schedule_events WHERE date=?")) {
-            p.setString(1, today);
-            ResultSet r = p.executeQuery();
-            if (r.next()) return r.getInt(1);
+        try (PooledConnection c = getConnection()) {
+            PreparedStatement p = c.prepare("SELECT COUNT(*) FROM schedule_events WHERE day=?");
+            p.setLong(1, EpochTime.today());
+            try (ResultSet r = p.executeQuery()) {
+                if (r.next()) return r.getInt(1);
+            }
         } catch (SQLException e) { e.printStackTrace(); }
         return 0;
     }
 
     // =================== HABITS ===================
     public static int addHabit(Habit h) {
-        String sql = "INSERT INTO habits(name,completed_days) VALUES(?,?)";
-        try (Connection c = getConnection();
-             PreparedStatement p = c.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+        try (PooledConnection c = getConnection()) {
+            PreparedStatement p = c.prepareInsert("INSERT INTO habits(name) VALUES(?)");
             p.setString(1, h.getName());
-            p.setString(2, h.getCompletedDays());
             p.executeUpdate();
-            ResultSet rs = p.getGeneratedKeys();
-            if (rs.next()) return rs.getInt(1);
+            int id = generatedKey(p);
+            changed(DataChange.created(Entity.HABIT, id));
+            return id;
         } catch (SQLException e) { e.printStackTrace(); }
         return -1;
     }
 
+    /** All habits with their full completion history, read from the bitset column. */
     public static List<Habit> getAllHabits() {
+        return EntityCache.HABITS.get("all", DatabaseManager::loadHabits,
+                EntityCache.each(Habit::copy));
+    }
+
+    private static List<Habit> loadHabits() {
         List<Habit> list = new ArrayList<>();
-        try (Connection c = getConnection();
-             Statement s = c.createStatement();
-             ResultSet r = s.executeQuery("SELECT * FROM habits ORDER BY created_at DESC")) {
-            while (r.next()) {
-                Habit h = new Habit();
-                h.setId(r.getInt("id"));
-                h.setName(r.getString("name"));
-                h.setCompletedDays(r.getString("completed_days"));
-                h.setCreatedAt(r.getString("created_at"));
-                list.add(h);
+        try (PooledConnection c = getConnection()) {
+            try (ResultSet r = c.prepare(
+                    "SELECT id, name, created_at, completion_bits FROM habits ORDER BY created_at DESC").executeQuery()) {
+                while (r.next()) {
+                    Habit h = new Habit();
+                    h.setId(r.getInt(1));
+                    h.setName(r.getString(2));
+                    h.setCreatedAt(r.getString(3));
+                    h.setDays(HabitDays.fromBytes(r.getBytes(4)));
+                    list.add(h);
+                }
             }
         } catch (SQLException e) { e.printStackTrace(); }
         return list;
     }
 
-    public static void updateHabitDays(int id, String days) {
-        try (Connection c = getConnection();
-             PreparedStatement p = c.prepareStatement(
-                 "UPDATE habits SET completed_days=? WHERE id=?")) {
-            p.setString(1, days);
-            p.setInt(2, id);
+    /**
+     * habit_completions stays the source of truth; the habit's bitset column
+     * is updated in the same transaction.
+     */
+    public static void setHabitDay(int habitId, String day, boolean completed) {
+        try (PooledConnection c = getConnection()) {
+            c.begin();
+            PreparedStatement p = c.prepare(completed
+                    ? "INSERT OR IGNORE INTO habit_completions(habit_id,day) VALUES(?,?)"
+                    : "DELETE FROM habit_completions WHERE habit_id=? AND day=?");
+            p.setInt(1, habitId);
+            p.setString(2, day);
             p.executeUpdate();
+
+            PreparedStatement q = c.prepare("SELECT completion_bits FROM habits WHERE id=?");
+            q.setInt(1, habitId);
+            HabitDays days;
+            try (ResultSet r = q.executeQuery()) {
+                days = HabitDays.fromBytes(r.next() ? r.getBytes(1) : null);
+            }
+            days.set(LocalDate.parse(day).toEpochDay(), completed);
+            PreparedStatement u = c.prepare("UPDATE habits SET completion_bits=? WHERE id=?");
+            u.setBytes(1, days.toBytes());
+            u.setInt(2, habitId);
+            u.executeUpdate();
+            c.commit();
+            changed(DataChange.updated(Entity.HABIT, habitId));
+        } catch (SQLException e) { e.printStackTrace(); }
+    }
+
+    /** Completed days of one habit in [from, to], ascending. */
+    public static List<String> getHabitCompletions(int habitId, String from, String to) {
+        List<String> days = new ArrayList<>();
+        try (PooledConnection c = getConnection()) {
+            PreparedStatement p = c.prepare(
+                 "SELECT day FROM habit_completions WHERE habit_id=? AND day BETWEEN ? AND ? ORDER BY day");
+            p.setInt(1, habitId);
+            p.setString(2, from);
+            p.setString(3, to);
+            try (ResultSet r = p.executeQuery()) {
+                while (r.next()) days.add(r.getString(1));
+            }
+        } catch (SQLException e) { e.printStackTrace(); }
+        return days;
+    }
+
+    /** Number of habits completed on each day in [from, to]; days with none are absent. */
+    public static Map<String, Integer> countHabitCompletionsPerDay(String from, String to) {
+        return EntityCache.HABITS.get("perDay:" + from + ":" + to, () -> loadHabitCompletionsPerDay(from, to));
+    }
+
+    private static Map<String, Integer> loadHabitCompletionsPerDay(String from, String to) {
+        Map<String, Integer> counts = new TreeMap<>();
+        try (PooledConnection c = getConnection()) {
+            PreparedStatement p = c.prepare(
+                 "SELECT day, COUNT(*) FROM habit_completions WHERE day BETWEEN ? AND ? GROUP BY day");
+            p.setString(1, from);
+            p.setString(2, to);
+            try (ResultSet r = p.executeQuery()) {
+                while (r.next()) counts.put(r.getString(1), r.getInt(2));
+            }
         } catch (SQLException e) { e.printStackTrace(); }
+        return Collections.unmodifiableMap(counts);
+    }
+
+    /** Current streak of every habit with one completed on {@code today}. */
+    public static Map<Integer, Integer> getCurrentStreaks(String today) {
+        long day = LocalDate.parse(today).toEpochDay();
+        Map<Integer, Integer> streaks = new HashMap<>();
+        for (Habit h : getAllHabits()) {
+            int streak = h.getDays().currentStreak(day);
+            if (streak > 0) streaks.put(h.getId(), streak);
+        }
+        return streaks;
     }
 
     public static void deleteHabit(int id) {
-        try (Connection c = getConnection();
-             PreparedStatement p = c.prepareStatement("DELETE FROM habits WHERE id=?")) {
+        try (PooledConnection c = getConnection()) {
+            PreparedStatement p = c.prepare("DELETE FROM habits WHERE id=?");
             p.setInt(1, id);
             p.executeUpdate();
+            changed(DataChange.deleted(Entity.HABIT, id));
         } catch (SQLException e) { e.printStackTrace(); }
     }
 
     // =================== SETTINGS ===================
     public static void saveSetting(String key, String value) {
-        try (Connection c = getConnection();
-             PreparedStatement p = c.prepareStatement(
-                 "INSERT OR REPLACE INTO settings(key,value) VALUES(?,?)")) {
-            p.setString(1, key);
-            p.setString(2, value);
-            p.executeUpdate();
+        WriteBehindQueue.cancel(WriteBehindQueue.settingKey(key));
+        try (PooledConnection c = getConnection()) {
+            saveSetting(c, key, value);
+            changed(DataChange.updated(Entity.SETTING, 0));
         } catch (SQLException e) { e.printStackTrace(); }
     }
 
+    static void saveSetting(PooledConnection c, String key, String value) throws SQLException {
+        PreparedStatement p = c.prepare("INSERT OR REPLACE INTO settings(key,value) VALUES(?,?)");
+        p.setString(1, key);
+        p.setString(2, value);
+        p.executeUpdate();
+    }
+
     public static String getSetting(String key) {
-        try (Connection c = getConnection();
-             PreparedStatement p = c.prepareStatement(
-                 "SELECT value FROM settings WHERE key=?")) {
+        WriteBehindQueue.Pending buffered = WriteBehindQueue.lookup(WriteBehindQueue.settingKey(key));
+        if (buffered != null) return (String) buffered.value();
+        return EntityCache.SETTINGS.get(key, () -> loadSetting(key));
+    }
+
+    private static String loadSetting(String key) {
+        try (PooledConnection c = getConnection()) {
+            PreparedStatement p = c.prepare("SELECT value FROM settings WHERE key=?");
             p.setString(1, key);
-            ResultSet r = p.executeQuery();
-            if (r.next()) return r.getString(1);
+            try (ResultSet r = p.executeQuery()) {
+                if (r.next()) return r.getString(1);
+            }
         } catch (SQLException e) { e.printStackTrace(); }
         return null;
     }
 
     // =================== MOODS ===================
     public static void logMood(String mood) {
-        try (Connection c = getConnection();
-             PreparedStatement p = c.prepareStatement(
-                 "INSERT INTO moods(mood) VALUES(?)")) {
+        try (PooledConnection c = getConnection()) {
+            PreparedStatement p = c.prepare("INSERT INTO moods(mood) VALUES(?)");
             p.setString(1, mood);
             p.executeUpdate();
+            changed(DataChange.created(Entity.MOOD, 0));
         } catch (SQLException e) { e.printStackTrace(); }
     }
 
     public static String getLatestMood() {
-        try (Connection c = getConnection();
-             Statement s = c.createStatement();
-             ResultSet r = s.executeQuery(
-                 "SELECT mood FROM moods ORDER BY logged_at DESC LIMIT 1")) {
+        return EntityCache.MOODS.get("latest", DatabaseManager::loadLatestMood);
+    }
+
+    private static String loadLatestMood() {
+        try (PooledConnection c = getConnection();
+             ResultSet r = c.prepare(
+                 "SELECT mood FROM moods ORDER BY logged_at DESC LIMIT 1").executeQuery()) {
             if (r.next()) return r.getString(1);
         } catch (SQLException e) { e.printStackTrace(); }
         return null;
@@ -406,57 +757,241 @@ public class DatabaseManager {
 
     // =================== STATS HELPERS ===================
     public static int countPendingTasks() {
-        try (Connection c = getConnection();
-             Statement s = c.createStatement();
-             ResultSet r = s.executeQuery(
-                 "SELECT COUNT(*) FROM tasks WHERE completed=0")) {
-            if (r.next()) return r.getInt(1);
-        } catch (SQLException e) { e.printStackTrace(); }
-        return 0;
+        return count("SELECT COUNT(*) FROM tasks WHERE completed=0");
     }
 
     public static int countCompletedTasks() {
-        try (Connection c = getConnection();
-             Statement s = c.createStatement();
-             ResultSet r = s.executeQuery(
-                 "SELECT COUNT(*) FROM tasks WHERE completed=1")) {
-            if (r.next()) return r.getInt(1);
-        } catch (SQLException e) { e.printStackTrace(); }
-        return 0;
+        return count("SELECT COUNT(*) FROM tasks WHERE completed=1");
     }
 
     public static int countOverdueTasks() {
-        String today = java.time.LocalDate.now().toString();
-        try (Connection c = getConnection();
-             PreparedStatement p = c.prepareStatement(
-                 "SELECT COUNT(*) FROM tasks WHERE completed=0 AND due_date < ? AND due_date IS NOT NULL AND due_date != ''")) {
-            p.setString(1, today);
-            ResultSet r = p.executeQuery();
-            if (r.next()) return r.getInt(1);
+        try (PooledConnection c = getConnection()) {
+            PreparedStatement p = c.prepare("SELECT COUNT(*) FROM tasks WHERE completed=0 AND due_day < ?");
+            p.setLong(1, EpochTime.today());
+            try (ResultSet r = p.executeQuery()) {
+                if (r.next()) return r.getInt(1);
+            }
         } catch (SQLException e) { e.printStackTrace(); }
         return 0;
     }
 
     public static int countHighPriorityTasks() {
-        try (Connection c = getConnection();
-             Statement s = c.createStatement();
-             ResultSet r = s.executeQuery(
-                 "SELECT COUNT(*) FROM tasks WHERE priority='High' AND completed=0")) {
-            if (r.next()) return r.getInt(1);
+        return count("SELECT COUNT(*) FROM tasks WHERE priority='High' AND completed=0");
+    }
+
+    /**
+     * Tasks completed per day within [from, to], less those reopened since, read from the
+     * trigger-maintained rollups. Days with no activity are absent.
+     */
+    public static Map<String, Integer> countCompletedTasksPerDay(String from, String to) {
+        return EntityCache.TASKS.get("perDay:" + from + ":" + to, () -> loadCompletedTasksPerDay(from, to));
+    }
+
+    private static Map<String, Integer> loadCompletedTasksPerDay(String from, String to) {
+        Map<String, Integer> counts = new TreeMap<>();
+        try (PooledConnection c = getConnection()) {
+            PreparedStatement p = c.prepare(
+                 "SELECT day, completed FROM task_daily_stats WHERE day BETWEEN ? AND ?");
+            p.setString(1, from);
+            p.setString(2, to);
+            try (ResultSet r = p.executeQuery()) {
+                while (r.next()) counts.put(r.getString(1), r.getInt(2));
+            }
         } catch (SQLException e) { e.printStackTrace(); }
-        return 0;
+        return Collections.unmodifiableMap(counts);
+    }
+
+    // =================== SEARCH ===================
+    /**
+     * Ranked full-text search over tasks, notes, expenses and events, using
+     * the FTS5 search_index. Every word of {@code query} matches as a prefix;
+     * title hits rank above body hits.
+     */
+    public static List<SearchResult> search(String query, int limit) {
+        List<SearchResult> results = new ArrayList<>();
+        String match = toMatchExpression(query);
+        if (match.isEmpty()) return results;
+        try (PooledConnection c = getConnection()) {
+            PreparedStatement p = c.prepare("""
+                SELECT rowid, title, snippet(search_index, -1, '[', ']', '\u2026', 12)
+                FROM search_index WHERE search_index MATCH ?
+                ORDER BY bm25(search_index, 4.0, 1.0) LIMIT ?""");
+            p.setString(1, match);
+            p.setInt(2, limit);
+            try (ResultSet r = p.executeQuery()) {
+                SearchResult.Source[] sources = SearchResult.Source.values();
+                while (r.next()) {
+                    long rowid = r.getLong(1);
+                    results.add(new SearchResult(sources[(int) (rowid % 4)], (int) (rowid / 4),
+                            r.getString(2), r.getString(3)));
+                }
+            }
+        } catch (SQLException e) { e.printStackTrace(); }
+        return results;
+    }
+
+    // Quote each word so user input is never parsed as FTS5 syntax
+    private static String toMatchExpression(String query) {
+        StringBuilder sb = new StringBuilder();
+        for (String word : query.trim().split("\\s+")) {
+            String w = word.replace("\"", "");
+            if (w.isEmpty()) continue;
+            if (sb.length() > 0) sb.append(' ');
+            sb.append('"').append(w).append("\"*");
+        }
+        return sb.toString();
+    }
+
+    // =================== DASHBOARD ===================
+    /**
+     * Every dashboard and task-header statistic in one statement. The result
+     * is cached per day until tasks, expenses, events or moods change, since
+     * overdue and today's counts depend on the date.
+     */
+    public static DashboardSnapshot getDashboardSnapshot() {
+        String today = LocalDate.now().toString();
+        return EntityCache.DASHBOARD.get(today, () -> loadDashboardSnapshot(today));
+    }
+
+    private static DashboardSnapshot loadDashboardSnapshot(String today) {
+        try (PooledConnection c = getConnection()) {
+            PreparedStatement p = c.prepare("""
+                SELECT t.pending, t.done, t.overdue, t.high,
+                       (SELECT COALESCE(SUM(amount),0) FROM expenses),
+                       (SELECT COUNT(*) FROM schedule_events WHERE day=?1),
+                       (SELECT mood FROM moods ORDER BY logged_at DESC LIMIT 1)
+                FROM (SELECT COALESCE(SUM(completed=0),0) AS pending,
+                             COALESCE(SUM(completed=1),0) AS done,
+                             COALESCE(SUM(completed=0 AND due_day < ?1),0) AS overdue,
+                             COALESCE(SUM(completed=0 AND priority='High'),0) AS high
+                      FROM tasks) t""");
+            p.setLong(1, queryDay(today));
+            try (ResultSet r = p.executeQuery()) {
+                if (r.next()) {
+                    return new DashboardSnapshot(today,
+                            r.getInt(1), r.getInt(2), r.getInt(3), r.getInt(4),
+                            r.getDouble(5), r.getInt(6), r.getString(7));
+                }
+            }
+        } catch (SQLException e) { e.printStackTrace(); }
+        return new DashboardSnapshot(today, 0, 0, 0, 0, 0, 0, null);
     }
 
     /** Wipe everything */
     public static void wipeAllData() {
-        try (Connection c = getConnection(); Statement s = c.createStatement()) {
+        WriteBehindQueue.cancelAll();
+        AutosaveService.discardAll();
+        try (PooledConnection c = getConnection(); Statement s = c.createStatement()) {
+            c.begin();
             s.execute("DELETE FROM tasks");
+            s.execute("DELETE FROM task_events");
+            s.execute("DELETE FROM task_daily_stats");
             s.execute("DELETE FROM notes");
             s.execute("DELETE FROM expenses");
             s.execute("DELETE FROM schedule_events");
+            s.execute("DELETE FROM habit_completions");
             s.execute("DELETE FROM habits");
             s.execute("DELETE FROM settings");
             s.execute("DELETE FROM moods");
+            c.commit();
+            for (Entity entity : Entity.values()) changed(DataChange.reset(entity));
         } catch (SQLException e) { e.printStackTrace(); }
     }
-}
\ No newline at end of file
+
+    // =================== INTERNAL ===================
+    @FunctionalInterface
+    private interface RowMapper<T> {
+        T map(ResultSet r) throws SQLException;
+    }
+
+    /**
+     * Rows of {@code sql} as a lazily fetched stream. The pooled connection is
+     * released once the rows run out or the stream is closed; callers that may
+     * stop early must close it (try-with-resources).
+     */
+    private static <T> Stream<T> stream(String sql, RowMapper<T> mapper) {
+        PooledConnection c = null;
+        try {
+            c = getConnection();
+            ResultSet r = c.prepare(sql).executeQuery();
+            PooledConnection lease = c;
+            boolean[] open = { true };
+            Runnable release = () -> {
+                if (!open[0]) return;
+                open[0] = false;
+                try { r.close(); } catch (SQLException e) { e.printStackTrace(); }
+                lease.close();
+            };
+            Spliterator<T> rows = new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE, Spliterator.ORDERED) {
+                @Override
+                public boolean tryAdvance(Consumer<? super T> action) {
+                    if (!open[0]) return false;
+                    try {
+                        if (r.next()) {
+                            action.accept(mapper.map(r));
+                            return true;
+                        }
+                    } catch (SQLException e) { e.printStackTrace(); }
+                    release.run();
+                    return false;
+                }
+            };
+            return StreamSupport.stream(rows, false).onClose(release);
+        } catch (SQLException e) {
+            e.printStackTrace();
+            if (c != null) c.close();
+            return Stream.empty();
+        }
+    }
+
+    /** Invalidate the changed entity's cache and derived data, then notify subscribers; call once the write has committed. */
+    static void changed(DataChange change) {
+        EntityCache.of(change.entity()).invalidate();
+        ColumnStore.apply(change);
+        AnalyticsEngine.invalidate(change.entity());
+        ChangeBus.publish(change);
+    }
+
+    private static int count(String sql) {
+        try (PooledConnection c = getConnection();
+             ResultSet r = c.prepare(sql).executeQuery()) {
+            if (r.next()) return r.getInt(1);
+        } catch (SQLException e) { e.printStackTrace(); }
+        return 0;
+    }
+
+    // A date a query is bounded by; without this check it would become NO_DAY, far below every row
+    private static long queryDay(String date) {
+        long day = EpochTime.parseDay(date);
+        if (day == EpochTime.NO_DAY) throw new IllegalArgumentException("Not a YYYY-MM-DD date: " + date);
+        return day;
+    }
+
+    // Epoch columns are NULL where the text has no valid value
+    private static void setDay(PreparedStatement p, int index, long day) throws SQLException {
+        if (day == EpochTime.NO_DAY) p.setNull(index, Types.INTEGER);
+        else p.setLong(index, day);
+    }
+
+    private static void setMinute(PreparedStatement p, int index, int minute) throws SQLException {
+        if (minute == EpochTime.NO_MINUTE) p.setNull(index, Types.INTEGER);
+        else p.setInt(index, minute);
+    }
+
+    private static long day(ResultSet r, String column) throws SQLException {
+        long day = r.getLong(column);
+        return r.wasNull() ? EpochTime.NO_DAY : day;
+    }
+
+    private static int minute(ResultSet r, String column) throws SQLException {
+        int minute = r.getInt(column);
+        return r.wasNull() ? EpochTime.NO_MINUTE : minute;
+    }
+
+    private static int generatedKey(PreparedStatement p) throws SQLException {
+        try (ResultSet rs = p.getGeneratedKeys()) {
+            if (rs.next()) return rs.getInt(1);
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,127 @@
+package com.focussphere.db;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Bounded, read-through cache of DAO query results for one entity. Reads go
+ * through {@link #get(String, Supplier)}; the DAO's own write methods call
+ * {@link #invalidate()} on the cache of the entity they touched, so switching
+ * between views is served from memory until that entity actually changes.
+ *
+ * The cached value itself never leaves the cache: results holding models
+ * are read through a copy function, so each caller gets its own objects and
+ * may modify them. Other results are immutable and returned as cached.
+ */
+public final class EntityCache {
+
+    /** Hit/miss counters for one cache, as reported by {@link #stats()}. */
+    public record Stats(String name, long hits, long misses, int size) {}
+
+    // Results that combine several entities, invalidated by each of them
+    static final EntityCache DASHBOARD = new EntityCache("dashboard", 4);
+
+    static final EntityCache TASKS    = new EntityCache("tasks", 32, DASHBOARD);
+    static final EntityCache NOTES    = new EntityCache("notes", 32);
+    static final EntityCache HABITS   = new EntityCache("habits", 16);
+    static final EntityCache EXPENSES = new EntityCache("expenses", 32, DASHBOARD);
+    static final EntityCache EVENTS   = new EntityCache("events", 64, DASHBOARD);
+    static final EntityCache SETTINGS = new EntityCache("settings", 32);
+    static final EntityCache MOODS    = new EntityCache("moods", 4, DASHBOARD);
+
+    private static final List<EntityCache> ALL =
+            List.of(TASKS, NOTES, HABITS, EXPENSES, EVENTS, SETTINGS, MOODS, DASHBOARD);
+
+    // Stands in for a cached null (missing setting, deleted note)
+    private static final Object NULL = new Object();
+
+    private final String name;
+    private final EntityCache[] dependents;
+    private final Map<String, Object> entries;
+    private long version;
+    private long hits, misses;
+
+    private EntityCache(String name, int capacity, EntityCache... dependents) {
+        this.name = name;
+        this.dependents = dependents;
+        this.entries = new LinkedHashMap<>(capacity, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Object> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /** Cached immutable result for {@code key}, or the loader's result. */
+    <T> T get(String key, Supplier<T> loader) {
+        return get(key, loader, UnaryOperator.identity());
+    }
+
+    /**
+     * Copy of the cached result for {@code key}, or of the loader's result. A
+     * result is only kept if no write invalidated this cache while the loader
+     * was running.
+     */
+    @SuppressWarnings("unchecked")
+    <T> T get(String key, Supplier<T> loader, UnaryOperator<T> copy) {
+        long loadVersion;
+        synchronized (this) {
+            Object cached = entries.get(key);
+            if (cached != null) {
+                hits++;
+                return cached == NULL ? null : copy.apply((T) cached);
+            }
+            misses++;
+            loadVersion = version;
+        }
+        T value = loader.get();
+        synchronized (this) {
+            if (loadVersion == version) entries.put(key, value == null ? NULL : value);
+        }
+        return value == null ? null : copy.apply(value);
+    }
+
+    /** Copy function for a list result: a new list of copied elements. */
+    static <T> UnaryOperator<List<T>> each(UnaryOperator<T> copy) {
+        return list -> {
+            List<T> copied = new ArrayList<>(list.size());
+            for (T t : list) copied.add(copy.apply(t));
+            return copied;
+        };
+    }
+
+    /** Drop every cached result for this entity and the caches built on it. */
+    void invalidate() {
+        synchronized (this) {
+            version++;
+            entries.clear();
+        }
+        for (EntityCache d : dependents) d.invalidate();
+    }
+
+    static EntityCache of(DataChange.Entity entity) {
+        return switch (entity) {
+            case TASK -> TASKS;
+            case NOTE -> NOTES;
+            case HABIT -> HABITS;
+            case EXPENSE -> EXPENSES;
+            case EVENT -> EVENTS;
+            case SETTING -> SETTINGS;
+            case MOOD -> MOODS;
+        };
+    }
+
+    public static List<Stats> stats() {
+        List<Stats> list = new ArrayList<>();
+        for (EntityCache c : ALL) {
+            synchronized (c) {
+                list.add(new Stats(c.name, c.hits, c.misses, c.entries.size()));
+            }
+        }
+        return list;
+    }
+}
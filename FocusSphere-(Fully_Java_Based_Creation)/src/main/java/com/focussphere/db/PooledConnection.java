@@ -0,0 +1,129 @@
+package com.focussphere.db;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A lease on one pooled connection. Compiled statements are cached per
+ * connection and keyed by SQL text, so callers must not close the
+ * statements they get from {@link #prepare(String)} — only their ResultSets.
+ * <p>
+ * Every {@link ConnectionPool#acquire()} returns a new lease. Once closed, a
+ * lease refuses further use, so a late or second close can never give back
+ * the connection while someone else holds it.
+ */
+public class PooledConnection implements AutoCloseable {
+
+    private static final int STATEMENT_CACHE_SIZE = 64;
+
+    /** The long-lived connection and its statement cache, owned by the pool. */
+    static final class Slot {
+        final Connection connection;
+        private final Map<String, PreparedStatement> statements =
+                new LinkedHashMap<>(16, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                        if (size() <= STATEMENT_CACHE_SIZE) return false;
+                        closeStatement(eldest.getValue());
+                        return true;
+                    }
+                };
+
+        Slot(Connection connection) {
+            this.connection = connection;
+        }
+
+        PreparedStatement cached(String sql, boolean generatedKeys) throws SQLException {
+            String key = generatedKeys ? "K:" + sql : sql;
+            PreparedStatement p = statements.get(key);
+            if (p == null) {
+                p = generatedKeys
+                        ? connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)
+                        : connection.prepareStatement(sql);
+                statements.put(key, p);
+            } else {
+                p.clearParameters();
+            }
+            return p;
+        }
+
+        void closeQuietly() {
+            statements.values().forEach(Slot::closeStatement);
+            statements.clear();
+            try {
+                connection.close();
+            } catch (SQLException e) { e.printStackTrace(); }
+        }
+
+        private static void closeStatement(PreparedStatement p) {
+            try {
+                p.close();
+            } catch (SQLException e) { e.printStackTrace(); }
+        }
+    }
+
+    private final ConnectionPool pool;
+    private final Slot slot;
+    private final AtomicBoolean released = new AtomicBoolean();
+
+    PooledConnection(ConnectionPool pool, Slot slot) {
+        this.pool = pool;
+        this.slot = slot;
+    }
+
+    /** Cached statement for {@code sql}, with parameters cleared. */
+    public PreparedStatement prepare(String sql) throws SQLException {
+        return live().cached(sql, false);
+    }
+
+    /** Cached statement for an INSERT whose generated key is read back. */
+    public PreparedStatement prepareInsert(String sql) throws SQLException {
+        return live().cached(sql, true);
+    }
+
+    /** Uncached statement for one-off DDL; caller closes it. */
+    public Statement createStatement() throws SQLException {
+        return live().connection.createStatement();
+    }
+
+    public void begin() throws SQLException {
+        live().connection.setAutoCommit(false);
+    }
+
+    public void commit() throws SQLException {
+        Connection connection = live().connection;
+        connection.commit();
+        connection.setAutoCommit(true);
+    }
+
+    public void rollback() {
+        try {
+            Connection connection = live().connection;
+            connection.rollback();
+            connection.setAutoCommit(true);
+        } catch (SQLException e) { e.printStackTrace(); }
+    }
+
+    /** Give the connection back; closing an already closed lease does nothing. */
+    @Override
+    public void close() {
+        if (!released.compareAndSet(false, true)) return;
+        try {
+            if (!slot.connection.getAutoCommit()) {
+                slot.connection.rollback();
+                slot.connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) { e.printStackTrace(); }
+        pool.release(slot);
+    }
+
+    private Slot live() throws SQLException {
+        if (released.get()) throw new SQLException("Connection lease is closed");
+        return slot;
+    }
+}
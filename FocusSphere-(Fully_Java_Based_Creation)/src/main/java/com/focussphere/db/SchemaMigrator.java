@@ -0,0 +1,430 @@
+package com.focussphere.db;
+
+import com.focussphere.model.EpochTime;
+import com.focussphere.model.HabitDays;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Versioned schema migrations. Applied versions are recorded in
+ * {@code schema_version}; on startup every newer migration runs in order,
+ * each in its own transaction, so existing user databases evolve in place.
+ * Add new steps to the end of {@link #MIGRATIONS} and never edit old ones.
+ */
+final class SchemaMigrator {
+
+    @FunctionalInterface
+    interface Step {
+        void apply(PooledConnection c, Statement s) throws SQLException;
+    }
+
+    private record Migration(int version, String description, Step step) {}
+
+    private static final List<Migration> MIGRATIONS = List.of(
+            new Migration(1, "Base tables", SchemaMigrator::createBaseTables),
+            new Migration(2, "Indexes on hot predicates", SchemaMigrator::addQueryIndexes),
+            new Migration(3, "Normalize habit completions", SchemaMigrator::normalizeHabitCompletions),
+            new Migration(4, "Task completion time, event log and daily rollups", SchemaMigrator::addTaskEventLog),
+            new Migration(5, "Full-text search index", SchemaMigrator::addSearchIndex),
+            new Migration(6, "Keyset pagination indexes", SchemaMigrator::addPageIndexes),
+            new Migration(7, "Habit completion bitsets", SchemaMigrator::addHabitBitsets),
+            new Migration(8, "Epoch day and minute columns", SchemaMigrator::addEpochColumns),
+            new Migration(9, "Charge task reopens to the completion day", SchemaMigrator::chargeReopensToCompletionDay)
+    );
+
+    private SchemaMigrator() {}
+
+    static void migrate(PooledConnection c) throws SQLException {
+        try (Statement s = c.createStatement()) {
+            s.execute("""
+                CREATE TABLE IF NOT EXISTS schema_version (
+                    version INTEGER PRIMARY KEY,
+                    description TEXT,
+                    applied_at TEXT DEFAULT (datetime('now','localtime'))
+                )""");
+
+            int current = currentVersion(s);
+            boolean applied = false;
+            for (Migration m : MIGRATIONS) {
+                if (m.version() <= current) continue;
+                c.begin();
+                try {
+                    m.step().apply(c, s);
+                    PreparedStatement p = c.prepare("INSERT INTO schema_version(version,description) VALUES(?,?)");
+                    p.setInt(1, m.version());
+                    p.setString(2, m.description());
+                    p.executeUpdate();
+                    c.commit();
+                } catch (SQLException e) {
+                    c.rollback();
+                    throw new SQLException("Migration " + m.version() + " (" + m.description() + ") failed", e);
+                }
+                applied = true;
+            }
+            if (applied) s.execute("PRAGMA optimize");
+        }
+    }
+
+    private static int currentVersion(Statement s) throws SQLException {
+        try (ResultSet r = s.executeQuery("SELECT COALESCE(MAX(version),0) FROM schema_version")) {
+            return r.next() ? r.getInt(1) : 0;
+        }
+    }
+
+    // =================== V1 ===================
+    // IF NOT EXISTS so databases created before versioning adopt V1 as-is.
+    private static void createBaseTables(PooledConnection c, Statement s) throws SQLException {
+        s.execute("""
+            CREATE TABLE IF NOT EXISTS tasks (
+                id INTEGER PRIMARY KEY AUTOINCREMENT,
+                title TEXT NOT NULL,
+                description TEXT,
+                due_date TEXT,
+                priority TEXT DEFAULT 'Medium',
+                completed INTEGER DEFAULT 0,
+                tags TEXT,
+                recurring TEXT,
+                created_at TEXT DEFAULT (datetime('now','localtime'))
+            )""");
+
+        s.execute("""
+            CREATE TABLE IF NOT EXISTS notes (
+                id INTEGER PRIMARY KEY AUTOINCREMENT,
+                title TEXT NOT NULL,
+                content TEXT,
+                created_at TEXT DEFAULT (datetime('now','localtime')),
+                updated_at TEXT DEFAULT (datetime('now','localtime'))
+            )""");
+
+        s.execute("""
+            CREATE TABLE IF NOT EXISTS expenses (
+                id INTEGER PRIMARY KEY AUTOINCREMENT,
+                description TEXT NOT NULL,
+                amount REAL NOT NULL,
+                date TEXT,
+                category TEXT
+            )""");
+
+        s.execute("""
+            CREATE TABLE IF NOT EXISTS schedule_events (
+                id INTEGER PRIMARY KEY AUTOINCREMENT,
+                title TEXT NOT NULL,
+                start_time TEXT,
+                end_time TEXT,
+                color TEXT DEFAULT '#6366f1',
+                date TEXT
+            )""");
+
+        s.execute("""
+            CREATE TABLE IF NOT EXISTS habits (
+                id INTEGER PRIMARY KEY AUTOINCREMENT,
+                name TEXT NOT NULL,
+                completed_days TEXT DEFAULT '',
+                created_at TEXT DEFAULT (datetime('now','localtime'))
+            )""");
+
+        s.execute("""
+            CREATE TABLE IF NOT EXISTS settings (
+                key TEXT PRIMARY KEY,
+                value TEXT
+            )""");
+
+        s.execute("""
+            CREATE TABLE IF NOT EXISTS moods (
+                id INTEGER PRIMARY KEY AUTOINCREMENT,
+                mood TEXT NOT NULL,
+                logged_at TEXT DEFAULT (datetime('now','localtime'))
+            )""");
+    }
+
+    // =================== V2 ===================
+    private static void addQueryIndexes(PooledConnection c, Statement s) throws SQLException {
+        // getAllTasks ORDER BY completed ASC, created_at DESC; pending/completed counts
+        s.execute("CREATE INDEX IF NOT EXISTS idx_tasks_completed_created ON tasks(completed, created_at DESC)");
+        // countOverdueTasks: completed=0 AND due_date < ?
+        s.execute("CREATE INDEX IF NOT EXISTS idx_tasks_completed_due ON tasks(completed, due_date)");
+        // countHighPriorityTasks: priority='High' AND completed=0
+        s.execute("CREATE INDEX IF NOT EXISTS idx_tasks_priority_completed ON tasks(priority, completed)");
+        // getEventsForDate / countEventsToday: date=? ORDER BY start_time
+        s.execute("CREATE INDEX IF NOT EXISTS idx_events_date_start ON schedule_events(date, start_time)");
+        // getAllExpenses ORDER BY date; range sums read amount from the index
+        s.execute("CREATE INDEX IF NOT EXISTS idx_expenses_date_amount ON expenses(date, amount)");
+        // getLatestMood ORDER BY logged_at DESC LIMIT 1
+        s.execute("CREATE INDEX IF NOT EXISTS idx_moods_logged_at ON moods(logged_at)");
+        // getAllNotes / getAllHabits ordering
+        s.execute("CREATE INDEX IF NOT EXISTS idx_notes_updated_at ON notes(updated_at)");
+        s.execute("CREATE INDEX IF NOT EXISTS idx_habits_created_at ON habits(created_at)");
+    }
+
+    // =================== V3 ===================
+    private static void normalizeHabitCompletions(PooledConnection c, Statement s) throws SQLException {
+        s.execute("""
+            CREATE TABLE IF NOT EXISTS habit_completions (
+                habit_id INTEGER NOT NULL REFERENCES habits(id) ON DELETE CASCADE,
+                day TEXT NOT NULL,
+                PRIMARY KEY (habit_id, day)
+            ) WITHOUT ROWID""");
+        // per-day counts across all habits
+        s.execute("CREATE INDEX IF NOT EXISTS idx_habit_completions_day ON habit_completions(day, habit_id)");
+
+        List<Object[]> legacy = new ArrayList<>();
+        try (ResultSet r = s.executeQuery(
+                "SELECT id, completed_days FROM habits WHERE completed_days IS NOT NULL AND completed_days != ''")) {
+            while (r.next()) legacy.add(new Object[] { r.getInt(1), r.getString(2) });
+        }
+        PreparedStatement p = c.prepare("INSERT OR IGNORE INTO habit_completions(habit_id,day) VALUES(?,?)");
+        for (Object[] row : legacy) {
+            for (String day : ((String) row[1]).split(",")) {
+                if (day.isBlank()) continue;
+                p.setInt(1, (Integer) row[0]);
+                p.setString(2, day.trim());
+                p.addBatch();
+            }
+        }
+        p.executeBatch();
+
+        s.execute("ALTER TABLE habits DROP COLUMN completed_days");
+    }
+
+    // =================== V4 ===================
+    private static void addTaskEventLog(PooledConnection c, Statement s) throws SQLException {
+        s.execute("ALTER TABLE tasks ADD COLUMN completed_at TEXT");
+        // No history exists for earlier completions; creation time is the best estimate
+        s.execute("UPDATE tasks SET completed_at = created_at WHERE completed = 1");
+
+        s.execute("""
+            CREATE TABLE task_events (
+                id INTEGER PRIMARY KEY AUTOINCREMENT,
+                task_id INTEGER NOT NULL,
+                kind TEXT NOT NULL CHECK (kind IN ('create','complete','reopen','delete')),
+                at TEXT DEFAULT (datetime('now','localtime'))
+            )""");
+        s.execute("CREATE INDEX idx_task_events_task ON task_events(task_id, at)");
+
+        s.execute("""
+            CREATE TABLE task_daily_stats (
+                day TEXT PRIMARY KEY,
+                created INTEGER NOT NULL DEFAULT 0,
+                completed INTEGER NOT NULL DEFAULT 0,
+                reopened INTEGER NOT NULL DEFAULT 0,
+                deleted INTEGER NOT NULL DEFAULT 0
+            ) WITHOUT ROWID""");
+
+        // Seed the log and rollups from existing rows before the triggers exist
+        s.execute("INSERT INTO task_events(task_id,kind,at) SELECT id, 'create', created_at FROM tasks");
+        s.execute("INSERT INTO task_events(task_id,kind,at) SELECT id, 'complete', completed_at FROM tasks WHERE completed = 1");
+        s.execute("""
+            INSERT INTO task_daily_stats(day, created, completed, reopened, deleted)
+            SELECT substr(at,1,10), SUM(kind='create'), SUM(kind='complete'), SUM(kind='reopen'), SUM(kind='delete')
+            FROM task_events GROUP BY substr(at,1,10)""");
+
+        // Every path that touches tasks (including bulk deletes) is logged by triggers
+        s.execute("""
+            CREATE TRIGGER trg_tasks_insert AFTER INSERT ON tasks BEGIN
+                INSERT INTO task_events(task_id,kind) VALUES (NEW.id, 'create');
+            END""");
+        s.execute("""
+            CREATE TRIGGER trg_tasks_completed AFTER UPDATE OF completed ON tasks
+            WHEN NEW.completed != OLD.completed BEGIN
+                INSERT INTO task_events(task_id,kind)
+                VALUES (NEW.id, CASE WHEN NEW.completed = 1 THEN 'complete' ELSE 'reopen' END);
+            END""");
+        s.execute("""
+            CREATE TRIGGER trg_tasks_delete AFTER DELETE ON tasks BEGIN
+                INSERT INTO task_events(task_id,kind) VALUES (OLD.id, 'delete');
+            END""");
+        s.execute("""
+            CREATE TRIGGER trg_task_events_rollup AFTER INSERT ON task_events BEGIN
+                INSERT INTO task_daily_stats(day, created, completed, reopened, deleted)
+                VALUES (substr(NEW.at,1,10), NEW.kind='create', NEW.kind='complete',
+                        NEW.kind='reopen', NEW.kind='delete')
+                ON CONFLICT(day) DO UPDATE SET
+                    created = created + excluded.created,
+                    completed = completed + excluded.completed,
+                    reopened = reopened + excluded.reopened,
+                    deleted = deleted + excluded.deleted;
+            END""");
+    }
+
+    // =================== V5 ===================
+    // One FTS5 table over every searchable entity. rowid = id * 4 + source
+    // (0 task, 1 note, 2 expense, 3 event, as in SearchResult.Source), so the
+    // sync triggers address index rows by rowid instead of scanning.
+    private static void addSearchIndex(PooledConnection c, Statement s) throws SQLException {
+        s.execute("""
+            CREATE VIRTUAL TABLE search_index USING fts5(
+                title, body,
+                tokenize = 'unicode61 remove_diacritics 2',
+                prefix = '2 3'
+            )""");
+        indexSource(s, "tasks", 0, "{r}.title",
+                "COALESCE({r}.description,'') || ' ' || COALESCE({r}.tags,'')", "title, description, tags");
+        indexSource(s, "notes", 1, "{r}.title", "COALESCE({r}.content,'')", "title, content");
+        indexSource(s, "expenses", 2, "{r}.description", "COALESCE({r}.category,'')", "description, category");
+        indexSource(s, "schedule_events", 3, "{r}.title", "''", "title");
+    }
+
+    /** Backfill one table into search_index and install its sync triggers. */
+    private static void indexSource(Statement s, String table, int source,
+                                    String title, String body, String watched) throws SQLException {
+        String key = "{r}.id * 4 + " + source;
+        s.execute("INSERT INTO search_index(rowid,title,body) SELECT %s, %s, %s FROM %s r"
+                .formatted(row(key, "r"), row(title, "r"), row(body, "r"), table));
+        s.execute("""
+            CREATE TRIGGER trg_%1$s_fts_insert AFTER INSERT ON %1$s BEGIN
+                INSERT INTO search_index(rowid,title,body) VALUES (%2$s, %3$s, %4$s);
+            END""".formatted(table, row(key, "NEW"), row(title, "NEW"), row(body, "NEW")));
+        s.execute("""
+            CREATE TRIGGER trg_%1$s_fts_update AFTER UPDATE OF %2$s ON %1$s BEGIN
+                UPDATE search_index SET title = %4$s, body = %5$s WHERE rowid = %3$s;
+            END""".formatted(table, watched, row(key, "NEW"), row(title, "NEW"), row(body, "NEW")));
+        s.execute("""
+            CREATE TRIGGER trg_%1$s_fts_delete AFTER DELETE ON %1$s BEGIN
+                DELETE FROM search_index WHERE rowid = %2$s;
+            END""".formatted(table, row(key, "OLD")));
+    }
+
+    private static String row(String expr, String alias) {
+        return expr.replace("{r}", alias);
+    }
+
+    // =================== V6 ===================
+    // Each page query seeks to (sort key, id) of the previous page's last row
+    private static void addPageIndexes(PooledConnection c, Statement s) throws SQLException {
+        s.execute("CREATE INDEX IF NOT EXISTS idx_tasks_completed_created_id ON tasks(completed, created_at, id)");
+        s.execute("CREATE INDEX IF NOT EXISTS idx_expenses_date_id ON expenses(date, id)");
+        s.execute("CREATE INDEX IF NOT EXISTS idx_notes_updated_id ON notes(updated_at, id)");
+        s.execute("DROP INDEX IF EXISTS idx_tasks_completed_created");
+        s.execute("DROP INDEX IF EXISTS idx_notes_updated_at");
+    }
+
+    // =================== V7 ===================
+    // Denormalized copy of habit_completions, one blob per habit, read by getAllHabits
+    private static void addHabitBitsets(PooledConnection c, Statement s) throws SQLException {
+        s.execute("ALTER TABLE habits ADD COLUMN completion_bits BLOB");
+
+        Map<Integer, HabitDays> byHabit = new HashMap<>();
+        try (ResultSet r = s.executeQuery("SELECT habit_id, day FROM habit_completions")) {
+            while (r.next()) {
+                long day = EpochTime.parseDay(r.getString(2));
+                if (day == EpochTime.NO_DAY) continue; // malformed day, cannot be charted anyway
+                byHabit.computeIfAbsent(r.getInt(1), id -> new HabitDays()).set(day, true);
+            }
+        }
+        PreparedStatement p = c.prepare("UPDATE habits SET completion_bits=? WHERE id=?");
+        for (Map.Entry<Integer, HabitDays> e : byHabit.entrySet()) {
+            p.setBytes(1, e.getValue().toBytes());
+            p.setInt(2, e.getKey());
+            p.addBatch();
+        }
+        p.executeBatch();
+    }
+
+    // =================== V8 ===================
+    // Integer copies of the date and time text, written by the DAO next to it.
+    // Backfilled with EpochTime so existing rows parse exactly as new input does;
+    // text without a valid value becomes NULL.
+    private static void addEpochColumns(PooledConnection c, Statement s) throws SQLException {
+        s.execute("ALTER TABLE tasks ADD COLUMN due_day INTEGER");
+        s.execute("ALTER TABLE expenses ADD COLUMN day INTEGER");
+        s.execute("ALTER TABLE schedule_events ADD COLUMN day INTEGER");
+        s.execute("ALTER TABLE schedule_events ADD COLUMN start_minute INTEGER");
+        s.execute("ALTER TABLE schedule_events ADD COLUMN end_minute INTEGER");
+
+        backfill(c, s, "SELECT id, due_date FROM tasks", "UPDATE tasks SET due_day=? WHERE id=?");
+        backfill(c, s, "SELECT id, date FROM expenses", "UPDATE expenses SET day=? WHERE id=?");
+        backfill(c, s, "SELECT id, date, start_time, end_time FROM schedule_events",
+                "UPDATE schedule_events SET day=?, start_minute=?, end_minute=? WHERE id=?");
+
+        // countOverdueTasks: completed=0 AND due_day < ?
+        s.execute("CREATE INDEX idx_tasks_completed_due_day ON tasks(completed, due_day)");
+        s.execute("DROP INDEX IF EXISTS idx_tasks_completed_due");
+        // getEventsBetween / per-day stats: day BETWEEN ? AND ? ORDER BY start_minute
+        s.execute("CREATE INDEX idx_events_day_start ON schedule_events(day, start_minute)");
+        s.execute("DROP INDEX IF EXISTS idx_events_date_start");
+        // Range sums read amount from the index
+        s.execute("CREATE INDEX idx_expenses_day_amount ON expenses(day, amount)");
+        s.execute("DROP INDEX IF EXISTS idx_expenses_date_amount");
+        // getExpensesPage / streamExpenses: (day, id) < (?, ?) ORDER BY day DESC, id DESC
+        s.execute("CREATE INDEX idx_expenses_day_id ON expenses(day, id)");
+        s.execute("DROP INDEX IF EXISTS idx_expenses_date_id");
+    }
+
+    // =================== V9 ===================
+    // A reopen undoes the completion it follows, so it takes that completion
+    // back from the day it was counted on. The reopen event records that day;
+    // the rollup's reopened column still counts reopens on the day they happen.
+    private static void chargeReopensToCompletionDay(PooledConnection c, Statement s) throws SQLException {
+        s.execute("ALTER TABLE task_events ADD COLUMN undoes TEXT");
+        // Existing reopens undo the latest completion logged before them
+        s.execute("""
+            UPDATE task_events AS r SET undoes = (
+                SELECT substr(MAX(e.at),1,10) FROM task_events e
+                WHERE e.task_id = r.task_id AND e.kind = 'complete' AND e.id < r.id)
+            WHERE r.kind = 'reopen'""");
+
+        s.execute("DROP TRIGGER trg_tasks_completed");
+        s.execute("""
+            CREATE TRIGGER trg_tasks_completed AFTER UPDATE OF completed ON tasks
+            WHEN NEW.completed != OLD.completed BEGIN
+                INSERT INTO task_events(task_id,kind,undoes)
+                VALUES (NEW.id, CASE WHEN NEW.completed = 1 THEN 'complete' ELSE 'reopen' END,
+                        CASE WHEN NEW.completed = 0 THEN substr(OLD.completed_at,1,10) END);
+            END""");
+        s.execute("DROP TRIGGER trg_task_events_rollup");
+        s.execute("""
+            CREATE TRIGGER trg_task_events_rollup AFTER INSERT ON task_events BEGIN
+                INSERT INTO task_daily_stats(day, created, completed, reopened, deleted)
+                VALUES (substr(NEW.at,1,10), NEW.kind='create', NEW.kind='complete',
+                        NEW.kind='reopen', NEW.kind='delete')
+                ON CONFLICT(day) DO UPDATE SET
+                    created = created + excluded.created,
+                    completed = completed + excluded.completed,
+                    reopened = reopened + excluded.reopened,
+                    deleted = deleted + excluded.deleted;
+                UPDATE task_daily_stats SET completed = completed - 1
+                WHERE NEW.kind = 'reopen' AND day = NEW.undoes;
+            END""");
+
+        // Rebuild the rollups from the log with the new rule
+        s.execute("DELETE FROM task_daily_stats");
+        s.execute("""
+            INSERT INTO task_daily_stats(day, created, completed, reopened, deleted)
+            SELECT day, SUM(created), SUM(completed), SUM(reopened), SUM(deleted) FROM (
+                SELECT substr(at,1,10) AS day, kind='create' AS created, kind='complete' AS completed,
+                       kind='reopen' AS reopened, kind='delete' AS deleted
+                FROM task_events
+                UNION ALL
+                SELECT undoes, 0, -1, 0, 0 FROM task_events WHERE kind = 'reopen' AND undoes IS NOT NULL
+            ) GROUP BY day""");
+    }
+
+    // The first text column is a date, any further ones are times
+    private static void backfill(PooledConnection c, Statement s, String select, String update) throws SQLException {
+        PreparedStatement p = c.prepare(update);
+        try (ResultSet r = s.executeQuery(select)) {
+            int columns = r.getMetaData().getColumnCount();
+            while (r.next()) {
+                long day = EpochTime.parseDay(r.getString(2));
+                if (day == EpochTime.NO_DAY) p.setNull(1, Types.INTEGER);
+                else p.setLong(1, day);
+                for (int i = 3; i <= columns; i++) {
+                    int minute = EpochTime.parseMinute(r.getString(i));
+                    if (minute == EpochTime.NO_MINUTE) p.setNull(i - 1, Types.INTEGER);
+                    else p.setInt(i - 1, minute);
+                }
+                p.setInt(columns, r.getInt(1));
+                p.addBatch();
+            }
+        }
+        p.executeBatch();
+    }
+}
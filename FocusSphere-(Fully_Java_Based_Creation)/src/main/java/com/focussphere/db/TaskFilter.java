@@ -0,0 +1,14 @@
+package com.focussphere.db;
+
+/** Which tasks a task list shows, as chosen in the Tasks view filter box. */
+public enum TaskFilter {
+    ALL, ACTIVE, COMPLETED;
+
+    public boolean includes(boolean completed) {
+        return switch (this) {
+            case ALL -> true;
+            case ACTIVE -> !completed;
+            case COMPLETED -> completed;
+        };
+    }
+}
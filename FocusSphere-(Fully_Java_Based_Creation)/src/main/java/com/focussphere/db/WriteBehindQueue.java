@@ -0,0 +1,116 @@
+package com.focussphere.db;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind buffer for high-frequency setting writes (scratchpad
+ * keystrokes). Writes to the same key within the flush
+ * window replace each other, and each flush applies what is left in a single
+ * transaction on the AsyncDatabase writer thread.
+ *
+ * DatabaseManager reads consult {@link #lookup(String)} so callers always see
+ * their own pending writes. A buffered write invalidates its entity's
+ * {@link EntityCache} straight away; its {@link DataChange} is published
+ * once the flush has committed it.
+ */
+public final class WriteBehindQueue {
+
+    private static final long FLUSH_DELAY_MS = 400;
+
+    @FunctionalInterface
+    interface SqlWrite {
+        void apply(PooledConnection c) throws SQLException;
+    }
+
+    /** A buffered write, the value it will store and the change it makes. */
+    record Pending(Object value, SqlWrite write, DataChange change) {}
+
+    private static final Object lock = new Object();
+    private static Map<String, Pending> pending = new LinkedHashMap<>();
+    private static CompletableFuture<Void> batchDone = new CompletableFuture<>();
+    private static ScheduledFuture<?> scheduled;
+
+    private WriteBehindQueue() {}
+
+    // =================== ENQUEUE ===================
+    public static CompletableFuture<Void> saveSetting(String key, String value) {
+        return enqueue(settingKey(key), value, DataChange.updated(DataChange.Entity.SETTING, 0), c -> DatabaseManager.saveSetting(c, key, value));
+    }
+
+    // =================== FLUSH ===================
+    /** Apply every buffered write now, on the calling thread. */
+    public static void flush() {
+        Map<String, Pending> batch;
+        CompletableFuture<Void> done;
+        synchronized (lock) {
+            if (scheduled != null) {
+                scheduled.cancel(false);
+                scheduled = null;
+            }
+            batch = pending;
+            done = batchDone;
+            pending = new LinkedHashMap<>();
+            batchDone = new CompletableFuture<>();
+        }
+        if (!batch.isEmpty()) {
+            List<Pending> writes = new ArrayList<>(batch.values());
+            try (PooledConnection c = DatabaseManager.getConnection()) {
+                c.begin();
+                for (Pending p : writes) p.write().apply(c);
+                c.commit();
+                writes.stream().map(Pending::change).distinct().forEach(DatabaseManager::changed);
+            } catch (SQLException e) { e.printStackTrace(); }
+        }
+        done.complete(null);
+    }
+
+    /** Flush on the writer thread, after any writes already queued there. */
+    public static CompletableFuture<Void> flushAsync() {
+        return AsyncDatabase.write(WriteBehindQueue::flush);
+    }
+
+    // =================== DAO HOOKS ===================
+    static Pending lookup(String key) {
+        synchronized (lock) {
+            return pending.get(key);
+        }
+    }
+
+    /** Drop a buffered write whose row is being deleted. */
+    static void cancel(String key) {
+        synchronized (lock) {
+            pending.remove(key);
+        }
+    }
+
+    static void cancelAll() {
+        synchronized (lock) {
+            pending.clear();
+        }
+    }
+
+    static String settingKey(String key) { return "setting:" + key; }
+
+    private static CompletableFuture<Void> enqueue(String key, Object value, DataChange change, SqlWrite write) {
+        CompletableFuture<Void> done;
+        synchronized (lock) {
+            pending.remove(key); // re-insert so flush order follows the latest write
+            pending.put(key, new Pending(value, write, change));
+            if (scheduled == null) {
+                scheduled = AsyncDatabase.writer().schedule(
+                        WriteBehindQueue::flush, FLUSH_DELAY_MS, TimeUnit.MILLISECONDS);
+            }
+            done = batchDone;
+        }
+        // Cached reads predate this edit and would hide it until the flush
+        EntityCache.of(change.entity()).invalidate();
+        return done;
+    }
+}
@@ -0,0 +1,12 @@
+package com.focussphere.model;
+
+import java.util.List;
+import java.util.Map;
+
+/** Everything the analytics view shows for the last {@code days} days. */
+public record AnalyticsSnapshot(int days, long completedCount, int maxStreak, double totalSpent,
+                                double focusHours, List<String> dayLabels,
+                                List<Long> tasksPerDay, List<Double> productivity,
+                                List<Integer> moods, List<String> weekDays,
+                                List<Double> weekScores, Map<String, Double> spendingByCategory) {
+}
@@ -0,0 +1,7 @@
+package com.focussphere.model;
+
+/** The dashboard and task header statistics, as of {@code date}. */
+public record DashboardSnapshot(String date, int pendingTasks, int completedTasks,
+                                int overdueTasks, int highPriorityTasks, double totalExpenses,
+                                int eventsToday, String latestMood) {
+}
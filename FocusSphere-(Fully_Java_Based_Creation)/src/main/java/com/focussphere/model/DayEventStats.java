@@ -0,0 +1,5 @@
+package com.focussphere.model;
+
+/** Schedule totals for one day: number of events and their combined length. */
+public record DayEventStats(String date, int eventCount, int totalMinutes) {
+}
@@ -0,0 +1,52 @@
+package com.focussphere.model;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Integer forms of the dates and times models are stored with: epoch days
+ * (days since 1970-01-01) for {@code YYYY-MM-DD} dates and minutes from
+ * midnight for {@code HH:mm} times. Text is parsed once, when a value is
+ * set from user input; rows read from the database carry both forms.
+ */
+public final class EpochTime {
+
+    /** No date, or text that is not a valid date. */
+    public static final long NO_DAY = Long.MIN_VALUE;
+    /** No time, or text that is not a valid time. */
+    public static final int NO_MINUTE = -1;
+
+    private EpochTime() {}
+
+    public static long parseDay(String date) {
+        if (date == null || date.isBlank()) return NO_DAY;
+        try {
+            return LocalDate.parse(date).toEpochDay();
+        } catch (DateTimeParseException e) {
+            return NO_DAY;
+        }
+    }
+
+    /** Minutes from midnight of an {@code H:mm} or {@code HH:mm[:ss]} time. */
+    public static int parseMinute(String time) {
+        if (time == null) return NO_MINUTE;
+        int colon = time.indexOf(':');
+        if (colon < 1 || colon > 2 || time.length() < colon + 3) return NO_MINUTE;
+        int h = digits(time, 0, colon), m = digits(time, colon + 1, colon + 3);
+        return h < 0 || h > 23 || m < 0 || m > 59 ? NO_MINUTE : h * 60 + m;
+    }
+
+    public static long today() {
+        return LocalDate.now().toEpochDay();
+    }
+
+    private static int digits(String s, int from, int to) {
+        int n = 0;
+        for (int i = from; i < to; i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') return -1;
+            n = n * 10 + (c - '0');
+        }
+        return n;
+    }
+}
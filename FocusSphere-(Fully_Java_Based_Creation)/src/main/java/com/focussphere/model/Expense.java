@@ -5,6 +5,7 @@ public class Expense {
     private String description;
     private double amount;
     private String date;
+    private long day = EpochTime.NO_DAY;
     private String category;
 
     public Expense() {}
@@ -12,10 +13,22 @@ public class Expense {
     public Expense(String description, double amount, String date, String category) {
         this.description = description;
         this.amount = amount;
-        this.date = date;
+        setDate(date);
         this.category = category;
     }
 
+    /** An independent copy with the same field values. */
+    public Expense copy() {
+        Expense e = new Expense();
+        e.id = id;
+        e.description = description;
+        e.amount = amount;
+        e.date = date;
+        e.day = day;
+        e.category = category;
+        return e;
+    }
+
     public int getId() { return id; }
     public void setId(int id) { this.id = id; }
 
@@ -26,7 +39,15 @@ public class Expense {
     public void setAmount(double a) { this.amount = a; }
 
     public String getDate() { return date; }
-    public void setDate(String d) { this.date = d; }
+    public void setDate(String d) { setDate(d, EpochTime.parseDay(d)); }
+    /** Set both forms as stored, without parsing. */
+    public void setDate(String d, long day) {
+        this.date = d;
+        this.day = day;
+    }
+
+    /** Date as an epoch day, or {@link EpochTime#NO_DAY}. */
+    public long getDay() { return day; }
 
     public String getCategory() { return category; }
     public void setCategory(String c) { this.category = c; }
@@ -1,20 +1,26 @@
 package com.focussphere.model;
 
-import java.util.*;
+import java.time.LocalDate;
 
 public class Habit {
     private int id;
     private String name;
-    private String completedDays; // comma-separated dates YYYY-MM-DD
+    private HabitDays days = new HabitDays(); // full completion history
     private String createdAt;
 
-    public Habit() {
-        this.completedDays = "";
-    }
+    public Habit() {}
 
     public Habit(String name) {
         this.name = name;
-        this.completedDays = "";
+    }
+
+    /** An independent copy, completion history included. */
+    public Habit copy() {
+        Habit h = new Habit(name);
+        h.id = id;
+        h.days = days.copy();
+        h.createdAt = createdAt;
+        return h;
     }
 
     public int getId() { return id; }
@@ -23,40 +29,29 @@ public class Habit {
     public String getName() { return name; }
     public void setName(String n) { this.name = n; }
 
-    public String getCompletedDays() { return completedDays; }
-    public void setCompletedDays(String c) { this.completedDays = c; }
-
     public String getCreatedAt() { return createdAt; }
     public void setCreatedAt(String c) { this.createdAt = c; }
 
-    public Set<String> getCompletedDaysSet() {
-        Set<String> set = new HashSet<>();
-        if (completedDays != null && !completedDays.isBlank()) {
-            for (String d : completedDays.split(",")) {
-                set.add(d.trim());
-            }
-        }
-        return set;
+    public HabitDays getDays() { return days; }
+    public void setDays(HabitDays d) { this.days = d; }
+
+    /** Streak ending today; 0 if today is not completed yet. */
+    public int getCurrentStreak() {
+        return days.currentStreak(LocalDate.now().toEpochDay());
     }
 
-    public void toggleDay(String dateStr) {
-        Set<String> days = getCompletedDaysSet();
-        if (days.contains(dateStr)) {
-            days.remove(dateStr);
-        } else {
-            days.add(dateStr);
-        }
-        this.completedDays = String.join(",", days);
+    public int getLongestStreak() {
+        return days.longestStreak();
     }
 
-    public int getCurrentStreak() {
-        Set<String> days = getCompletedDaysSet();
-        int streak = 0;
-        java.time.LocalDate d = java.time.LocalDate.now();
-        while (days.contains(d.toString())) {
-            streak++;
-            d = d.minusDays(1);
-        }
-        return streak;
+    public boolean isCompletedOn(LocalDate day) {
+        return days.contains(day);
+    }
+
+    /** Flip one day; returns true if the day is now completed. */
+    public boolean toggleDay(LocalDate day) {
+        boolean completed = !days.contains(day);
+        days.set(day.toEpochDay(), completed);
+        return completed;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,155 @@
+package com.focussphere.model;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Completed days of one habit as a bitset indexed by epoch day (days since
+ * 1970-01-01). Bit {@code d % 64} of word {@code d / 64} is day {@code d};
+ * only the words between the first and last completion are stored. Day
+ * lookups are O(1), counts use one popcount per 64 days and streaks scan
+ * whole words, so no dates or strings are created per day.
+ */
+public final class HabitDays {
+
+    private int firstWord;                 // word index of words[0]
+    private long[] words = new long[0];
+
+    public boolean contains(LocalDate day) {
+        return contains(day.toEpochDay());
+    }
+
+    public boolean contains(long epochDay) {
+        int w = word(epochDay) - firstWord;
+        return w >= 0 && w < words.length && (words[w] & bit(epochDay)) != 0;
+    }
+
+    public void set(long epochDay, boolean completed) {
+        int w = word(epochDay);
+        if (completed) {
+            include(w);
+            words[w - firstWord] |= bit(epochDay);
+        } else if (w - firstWord >= 0 && w - firstWord < words.length) {
+            words[w - firstWord] &= ~bit(epochDay);
+        }
+    }
+
+    public HabitDays copy() {
+        HabitDays d = new HabitDays();
+        d.firstWord = firstWord;
+        d.words = words.clone();
+        return d;
+    }
+
+    public boolean isEmpty() {
+        for (long x : words) if (x != 0) return false;
+        return true;
+    }
+
+    /** Completed days in [from, to], inclusive. */
+    public int count(long from, long to) {
+        if (from > to) return 0;
+        int lo = Math.max(word(from), firstWord);
+        int hi = Math.min(word(to), firstWord + words.length - 1);
+        int n = 0;
+        for (int w = lo; w <= hi; w++) {
+            long x = words[w - firstWord];
+            if (w == word(from)) x &= -1L << Math.floorMod(from, 64);
+            if (w == word(to)) x &= -1L >>> (63 - Math.floorMod(to, 64));
+            n += Long.bitCount(x);
+        }
+        return n;
+    }
+
+    /** Share of days in [from, to] that were completed, 0 to 1. */
+    public double rate(long from, long to) {
+        return from > to ? 0 : count(from, to) / (double) (to - from + 1);
+    }
+
+    /** Consecutive completed days ending on {@code today}; 0 if today is not completed. */
+    public int currentStreak(long today) {
+        int w = word(today) - firstWord;
+        int top = Math.floorMod(today, 64);
+        int streak = 0;
+        while (w >= 0 && w < words.length) {
+            long x = words[w] << (63 - top);           // today's bit at the top, older days below
+            int run = Long.numberOfLeadingZeros(~x);   // completed days from the top down
+            if (run <= top) return streak + run;
+            streak += top + 1;
+            w--;
+            top = 63;
+        }
+        return streak;
+    }
+
+    /** Longest run of consecutive completed days. */
+    public int longestStreak() {
+        int best = 0, run = 0;
+        for (long x : words) {
+            if (x == -1L) {
+                run += 64;
+                continue;
+            }
+            run += Long.numberOfTrailingZeros(~x);     // the run carried in from earlier words
+            best = Math.max(best, Math.max(run, longestRun(x)));
+            run = Long.numberOfLeadingZeros(~x);       // the run that continues into the next word
+        }
+        return Math.max(best, run);
+    }
+
+    // Each step shortens every run of ones by one
+    private static int longestRun(long x) {
+        int n = 0;
+        while (x != 0) {
+            x &= x << 1;
+            n++;
+        }
+        return n;
+    }
+
+    // =================== STORAGE ===================
+    /** Compact form: the first word index, then the words, without zero words at either end. */
+    public byte[] toBytes() {
+        int lo = 0, hi = words.length;
+        while (lo < hi && words[lo] == 0) lo++;
+        while (hi > lo && words[hi - 1] == 0) hi--;
+        ByteBuffer b = ByteBuffer.allocate(4 + 8 * (hi - lo));
+        b.putInt(firstWord + lo);
+        for (int i = lo; i < hi; i++) b.putLong(words[i]);
+        return b.array();
+    }
+
+    public static HabitDays fromBytes(byte[] bytes) {
+        HabitDays d = new HabitDays();
+        if (bytes == null || bytes.length < 4) return d;
+        ByteBuffer b = ByteBuffer.wrap(bytes);
+        d.firstWord = b.getInt();
+        d.words = new long[b.remaining() / 8];
+        for (int i = 0; i < d.words.length; i++) d.words[i] = b.getLong();
+        return d;
+    }
+
+    private static int word(long epochDay) {
+        return (int) Math.floorDiv(epochDay, 64);
+    }
+
+    private static long bit(long epochDay) {
+        return 1L << Math.floorMod(epochDay, 64);
+    }
+
+    // Grow the stored range to cover word w
+    private void include(int w) {
+        if (words.length == 0) {
+            firstWord = w;
+            words = new long[1];
+        } else if (w < firstWord) {
+            long[] grown = new long[words.length + firstWord - w];
+            System.arraycopy(words, 0, grown, firstWord - w, words.length);
+            words = grown;
+            firstWord = w;
+        } else if (w >= firstWord + words.length) {
+            words = Arrays.copyOf(words, w - firstWord + 1);
+        }
+    }
+}
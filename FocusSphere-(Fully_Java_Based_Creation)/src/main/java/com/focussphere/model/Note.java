@@ -14,6 +14,15 @@ public class Note {
         this.content = content;
     }
 
+    /** An independent copy with the same field values. */
+    public Note copy() {
+        Note n = new Note(title, content);
+        n.id = id;
+        n.createdAt = createdAt;
+        n.updatedAt = updatedAt;
+        return n;
+    }
+
     public int getId() { return id; }
     public void setId(int id) { this.id = id; }
 
@@ -30,7 +39,6 @@ public class Note {
     public void setUpdatedAt(String u) { this.updatedAt = u; }
 
     public int getWordCount() {
-        if (content == null || content.isBlank()) return 0;
-        return content.trim().split("\\s+").length;
+        return TextStats.of(content).words();
     }
 }
\ No newline at end of file
@@ -7,16 +7,34 @@ public class ScheduleEvent {
     private String endTime;   // HH:mm
     private String color;     // hex color
     private String date;      // YYYY-MM-DD
+    private int startMinute = EpochTime.NO_MINUTE;
+    private int endMinute = EpochTime.NO_MINUTE;
+    private long day = EpochTime.NO_DAY;
 
     public ScheduleEvent() {}
 
     public ScheduleEvent(String title, String startTime,
                          String endTime, String color, String date) {
         this.title = title;
-        this.startTime = startTime;
-        this.endTime = endTime;
+        setStartTime(startTime);
+        setEndTime(endTime);
         this.color = color;
-        this.date = date;
+        setDate(date);
+    }
+
+    /** An independent copy with the same field values. */
+    public ScheduleEvent copy() {
+        ScheduleEvent e = new ScheduleEvent();
+        e.id = id;
+        e.title = title;
+        e.startTime = startTime;
+        e.endTime = endTime;
+        e.color = color;
+        e.date = date;
+        e.startMinute = startMinute;
+        e.endMinute = endMinute;
+        e.day = day;
+        return e;
     }
 
     public int getId() { return id; }
@@ -26,33 +44,46 @@ public class ScheduleEvent {
     public void setTitle(String t) { this.title = t; }
 
     public String getStartTime() { return startTime; }
-    public void setStartTime(String s) { this.startTime = s; }
+    public void setStartTime(String s) { setStartTime(s, EpochTime.parseMinute(s)); }
+    public void setStartTime(String s, int minute) {
+        this.startTime = s;
+        this.startMinute = minute;
+    }
 
     public String getEndTime() { return endTime; }
-    public void setEndTime(String e) { this.endTime = e; }
+    public void setEndTime(String e) { setEndTime(e, EpochTime.parseMinute(e)); }
+    public void setEndTime(String e, int minute) {
+        this.endTime = e;
+        this.endMinute = minute;
+    }
 
     public String getColor() { return color; }
     public void setColor(String c) { this.color = c; }
 
     public String getDate() { return date; }
-    public void setDate(String d) { this.date = d; }
+    public void setDate(String d) { setDate(d, EpochTime.parseDay(d)); }
+    /** Set both forms as stored, without parsing. */
+    public void setDate(String d, long day) {
+        this.date = d;
+        this.day = day;
+    }
+
+    /** Date as an epoch day, or {@link EpochTime#NO_DAY}. */
+    public long getDay() { return day; }
+
+    /** True when both the start and end time are valid. */
+    public boolean isTimed() {
+        return startMinute != EpochTime.NO_MINUTE && endMinute != EpochTime.NO_MINUTE;
+    }
 
-    /** Duration in minutes */
+    /** Scheduled minutes; 0 when a time is missing or the end is not after the start. */
     public int getDurationMinutes() {
-        try {
-            String[] s = startTime.split(":");
-            String[] e = endTime.split(":");
-            int startMin = Integer.parseInt(s[0]) * 60 + Integer.parseInt(s[1]);
-            int endMin   = Integer.parseInt(e[0]) * 60 + Integer.parseInt(e[1]);
-            return Math.max(endMin - startMin, 0);
-        } catch (Exception ex) { return 60; }
+        if (!isTimed()) return 0;
+        return Math.max(endMinute - startMinute, 0);
     }
 
     /** Start minute from midnight */
     public int getStartMinute() {
-        try {
-            String[] s = startTime.split(":");
-            return Integer.parseInt(s[0]) * 60 + Integer.parseInt(s[1]);
-        } catch (Exception ex) { return 0; }
+        return startMinute == EpochTime.NO_MINUTE ? 0 : startMinute;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,25 @@
+package com.focussphere.model;
+
+/** One full-text search hit: the matching row, its title and a highlighted snippet. */
+public record SearchResult(Source source, int id, String title, String snippet) {
+
+    /** Searchable entities, in the order encoded into search_index rowids. */
+    public enum Source {
+        TASK("Tasks", "\u2705"),
+        NOTE("Notes", "\uD83D\uDCDD"),
+        EXPENSE("Expenses", "\uD83D\uDCB0"),
+        EVENT("Schedule", "\uD83D\uDCC5");
+
+        private final String view;
+        private final String icon;
+
+        Source(String view, String icon) {
+            this.view = view;
+            this.icon = icon;
+        }
+
+        /** Name of the App view that shows this entity. */
+        public String view() { return view; }
+        public String icon() { return icon; }
+    }
+}
@@ -5,11 +5,13 @@ public class Task {
     private String title;
     private String description;
     private String dueDate;   // ISO format YYYY-MM-DD
+    private long dueDay = EpochTime.NO_DAY;
     private String priority;  // Low, Medium, High
     private boolean completed;
     private String tags;      // comma-separated
     private String recurring; // null, Daily, Weekly, Monthly
     private String createdAt;
+    private String completedAt; // null while pending
 
     public Task() {
         this.priority = "Medium";
@@ -18,11 +20,28 @@ public class Task {
 
     public Task(String title, String dueDate, String priority) {
         this.title = title;
-        this.dueDate = dueDate;
+        setDueDate(dueDate);
         this.priority = priority;
         this.completed = false;
     }
 
+    /** An independent copy with the same field values. */
+    public Task copy() {
+        Task t = new Task();
+        t.id = id;
+        t.title = title;
+        t.description = description;
+        t.dueDate = dueDate;
+        t.dueDay = dueDay;
+        t.priority = priority;
+        t.completed = completed;
+        t.tags = tags;
+        t.recurring = recurring;
+        t.createdAt = createdAt;
+        t.completedAt = completedAt;
+        return t;
+    }
+
     // --- Getters & Setters ---
     public int getId() { return id; }
     public void setId(int id) { this.id = id; }
@@ -34,7 +53,19 @@ public class Task {
     public void setDescription(String d) { this.description = d; }
 
     public String getDueDate() { return dueDate; }
-    public void setDueDate(String dueDate) { this.dueDate = dueDate; }
+    public void setDueDate(String dueDate) { setDueDate(dueDate, EpochTime.parseDay(dueDate)); }
+    /** Set both forms as stored, without parsing. */
+    public void setDueDate(String dueDate, long dueDay) {
+        this.dueDate = dueDate;
+        this.dueDay = dueDay;
+    }
+
+    /** Due date as an epoch day, or {@link EpochTime#NO_DAY}. */
+    public long getDueDay() { return dueDay; }
+
+    public boolean isOverdue(long today) {
+        return !completed && dueDay != EpochTime.NO_DAY && dueDay < today;
+    }
 
     public String getPriority() { return priority; }
     public void setPriority(String priority) { this.priority = priority; }
@@ -50,4 +81,7 @@ public class Task {
 
     public String getCreatedAt() { return createdAt; }
     public void setCreatedAt(String createdAt) { this.createdAt = createdAt; }
-}
\ No newline at end of file
+
+    public String getCompletedAt() { return completedAt; }
+    public void setCompletedAt(String completedAt) { this.completedAt = completedAt; }
+}
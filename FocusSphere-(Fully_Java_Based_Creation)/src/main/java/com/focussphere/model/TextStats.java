@@ -0,0 +1,72 @@
+package com.focussphere.model;
+
+/**
+ * Word, character and line counts of a document, kept up to date from edit
+ * deltas. An edit only rescans the removed and inserted text plus one
+ * character on either side, so typing costs the same in a 200-page note as
+ * in an empty one. Words are runs of non-whitespace, as with
+ * {@code split("\\s+")}.
+ */
+public class TextStats {
+
+    private static final int WORDS_PER_MINUTE = 200;
+
+    private int words;
+    private int characters;
+    private int lines = 1;
+
+    public static TextStats of(String text) {
+        TextStats s = new TextStats();
+        s.reset(text);
+        return s;
+    }
+
+    /** Recount from scratch, e.g. when a different document is loaded. */
+    public void reset(String text) {
+        if (text == null) text = "";
+        words = wordStarts(' ', text, ' ');
+        characters = text.length();
+        lines = 1 + newlines(text);
+    }
+
+    /**
+     * Apply an edit that replaced {@code removed} with {@code inserted}.
+     * {@code before} and {@code after} are the characters next to the edited
+     * range, or a space at either end of the document.
+     */
+    public void apply(char before, String removed, String inserted, char after) {
+        words += wordStarts(before, inserted, after) - wordStarts(before, removed, after);
+        characters += inserted.length() - removed.length();
+        lines += newlines(inserted) - newlines(removed);
+    }
+
+    public int words()          { return words; }
+    public int characters()     { return characters; }
+    public int lines()          { return lines; }
+    public int readingMinutes() { return words == 0 ? 0 : Math.max(1, Math.round(words / (float) WORDS_PER_MINUTE)); }
+
+    // Word starts in text followed by after, given the character before text
+    private static int wordStarts(char before, String text, char after) {
+        int count = 0;
+        boolean prevSpace = isSpace(before);
+        for (int i = 0; i <= text.length(); i++) {
+            boolean space = isSpace(i < text.length() ? text.charAt(i) : after);
+            if (!space && prevSpace) count++;
+            prevSpace = space;
+        }
+        return count;
+    }
+
+    private static int newlines(String text) {
+        int count = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == '\n') count++;
+        }
+        return count;
+    }
+
+    // Same set as the regex \s
+    private static boolean isSpace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+}
@@ -1,11 +1,10 @@
 package com.focussphere.views;
 
 import com.focussphere.App;
-import com.focussphere.db.DatabaseManager;
-import com.focussphere.model.Expense;
-import com.focussphere.model.Habit;
-import com.focussphere.model.ScheduleEvent;
-import com.focussphere.model.Task;
+import com.focussphere.db.AnalyticsEngine;
+import com.focussphere.db.ChangeBus;
+import com.focussphere.model.AnalyticsSnapshot;
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.geometry.Insets;
 
@@ -15,9 +14,9 @@ import javafx.scene.control.*;
 import javafx.scene.layout.*;
 import javafx.util.StringConverter;
 
-import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
-import java.util.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 
 public class AnalyticsView extends ScrollPane {
 
@@ -47,6 +46,10 @@ public class AnalyticsView extends ScrollPane {
 
     private HBox weeklyOverviewBars;
 
+    private PieChart categoryChart;
+
+    private int refreshSeq;
+
     public AnalyticsView(App app) {
         this.app = app;
         setFitToWidth(true);
@@ -59,6 +62,16 @@ public class AnalyticsView extends ScrollPane {
 
         buildUI();
         setContent(container);
+
+        // The engine already marked the series stale; redraw if on screen
+        ChangeBus.subscribe(change -> {
+            switch (change.entity()) {
+                case TASK, HABIT, EVENT, EXPENSE, MOOD -> {
+                    if (getScene() != null) refresh();
+                }
+                default -> { }
+            }
+        }, Platform::runLater);
     }
 
     private void buildUI() {
@@ -164,7 +177,17 @@ public class AnalyticsView extends ScrollPane {
         HBox chartsRow2 = new HBox(16, moodChartCard, weeklyCard);
         chartsRow2.setPrefHeight(300);
 
-        container.getChildren().addAll(header, kpis, chartsRow1, chartsRow2);
+        // === CHARTS ROW 3 ===
+        // Spending by Category
+        categoryChart = new PieChart();
+        categoryChart.setTitle("Spending by Category");
+        categoryChart.setLabelsVisible(false);
+        categoryChart.setAnimated(false);
+
+        VBox categoryCard = wrapChartInCard(categoryChart);
+        categoryCard.setPrefHeight(300);
+
+        container.getChildren().addAll(header, kpis, chartsRow1, chartsRow2, categoryCard);
     }
 
     private VBox createWeeklyOverview() {
@@ -199,186 +222,71 @@ public class AnalyticsView extends ScrollPane {
         return card;
     }
 
+    /**
+     * Renders the cached snapshot for the selected range at once if it is
+     * still current; otherwise the engine rebuilds the stale series on a
+     * reader thread and the view renders when it is done.
+     */
     public void refresh() {
-        LocalDate now = LocalDate.now();
-        LocalDate startDate = now.minusDays(daysToAnalyze);
-
-        // 1. Tasks KPI - Count completed tasks in date range
-        List<Task> allTasks = DatabaseManager.getAllTasks();
-        long completedCount = allTasks.stream()
-                .filter(Task::isCompleted)
-                .count();
-        totalTasksLabel.setText(String.valueOf(completedCount));
-
-        // 2. Habit Streak KPI - Get maximum current streak
-        List<Habit> habits = DatabaseManager.getAllHabits();
-        int maxStreak = habits.stream()
-                .mapToInt(Habit::getCurrentStreak)
-                .max()
-                .orElse(0);
-        habitStreakLabel.setText(maxStreak + " days");
-
-        // 3. Expenses KPI - Sum expenses in date range
-        List<Expense> expenses = DatabaseManager.getAllExpenses();
-        double totalSpent = expenses.stream()
-                .filter(e -> {
-                    try {
-                        if (e.getDate() == null || e.getDate().isEmpty())
-                            return false;
-                        LocalDate expenseDate = LocalDate.parse(e.getDate());
-                        return !expenseDate.isBefore(startDate) && !expenseDate.isAfter(now);
-                    } catch (Exception x) {
-                        return false;
-                    }
-                })
-                .mapToDouble(Expense::getAmount)
-                .sum();
-        totalExpLabel.setText(String.format("$%.2f", totalSpent));
-
-        // 4. Focus Time KPI - Calculate from actual schedule events
-        double totalHours = 0;
-        for (int i = 0; i < daysToAnalyze; i++) {
-            String dateStr = now.minusDays(i).toString();
-            List<ScheduleEvent> events = DatabaseManager.getEventsForDate(dateStr);
-            for (ScheduleEvent ev : events) {
-                try {
-                    if (ev.getStartTime() != null && ev.getEndTime() != null) {
-                        int startMinutes = parseMinutes(ev.getStartTime());
-                        int endMinutes = parseMinutes(ev.getEndTime());
-                        if (endMinutes > startMinutes) {
-                            totalHours += (endMinutes - startMinutes) / 60.0;
-                        }
-                    }
-                } catch (Exception e) {
-                    // Skip invalid time entries
-                }
-            }
+        int seq = ++refreshSeq;
+        AnalyticsSnapshot cached = AnalyticsEngine.peek(daysToAnalyze);
+        if (cached != null) {
+            render(cached);
+            return;
         }
-        focusTimeLabel.setText(String.format("%.1fh", totalHours));
-
-        updateCharts(startDate, now);
-        updateWeeklyBars();
+        AnalyticsEngine.load(daysToAnalyze).thenAcceptAsync(data -> {
+            if (seq == refreshSeq) render(data);
+        }, Platform::runLater);
     }
 
-    private int parseMinutes(String time) {
-        String[] parts = time.split(":");
-        return Integer.parseInt(parts[0]) * 60 + Integer.parseInt(parts[1]);
+    private void render(AnalyticsSnapshot d) {
+        totalTasksLabel.setText(String.valueOf(d.completedCount()));
+        habitStreakLabel.setText(d.maxStreak() + " days");
+        totalExpLabel.setText(String.format("$%.2f", d.totalSpent()));
+        focusTimeLabel.setText(String.format("%.1fh", d.focusHours()));
+
+        updateCharts(d);
+        updateWeeklyBars(d.weekDays(), d.weekScores());
+        updateCategoryChart(d.spendingByCategory());
     }
 
-    private void updateCharts(LocalDate start, LocalDate end) {
-        // === Task Completion Trend - Show actual task completion over time ===
+    private void updateCharts(AnalyticsSnapshot data) {
         XYChart.Series<String, Number> seriesTasks = new XYChart.Series<>();
         seriesTasks.setName("Tasks Completed");
-
-        // Get all tasks and group by creation date (as proxy for completion date)
-        List<Task> allTasks = DatabaseManager.getAllTasks();
-        Map<String, Long> completedTasksPerDay = new HashMap<>();
-
-        // Initialize all dates in range with 0
-        for (LocalDate d = start; !d.isAfter(end); d = d.plusDays(1)) {
-            completedTasksPerDay.put(d.toString(), 0L);
-        }
-
-        // Count completed tasks by creation date (in real app, use completion date)
-        for (Task task : allTasks) {
-            if (task.isCompleted() && task.getCreatedAt() != null && task.getCreatedAt().length() >= 10) {
-                try {
-                    String dateKey = task.getCreatedAt().substring(0, 10);
-                    LocalDate taskDate = LocalDate.parse(dateKey);
-                    if (!taskDate.isBefore(start) && !taskDate.isAfter(end)) {
-                        completedTasksPerDay.merge(dateKey, 1L, Long::sum);
-                    }
-                } catch (Exception e) {
-                    // Skip invalid dates
-                }
-            }
-        }
-
-        // Add data points to chart
-        for (LocalDate d = start; !d.isAfter(end); d = d.plusDays(1)) {
-            String dateKey = d.toString();
-            long count = completedTasksPerDay.getOrDefault(dateKey, 0L);
-            seriesTasks.getData().add(new XYChart.Data<>(
-                    d.format(DateTimeFormatter.ofPattern("MM-dd")), count));
-        }
-
-        taskChart.getData().clear();
-        taskChart.getData().add(seriesTasks);
-
-        // === Productivity Score - Real habit completion data ===
         XYChart.Series<String, Number> seriesProd = new XYChart.Series<>();
         seriesProd.setName("Daily Productivity");
-
-        List<Habit> allHabits = DatabaseManager.getAllHabits();
-        for (LocalDate d = start; !d.isAfter(end); d = d.plusDays(1)) {
-            final String dateStr = d.toString();
-
-            // Count habits completed on this day
-            long habitCount = allHabits.stream()
-                    .filter(h -> h.getCompletedDaysSet().contains(dateStr))
-                    .count();
-
-            // Count events scheduled for this day
-            long eventCount = DatabaseManager.getEventsForDate(dateStr).size();
-
-            // Calculate productivity score (habits * 20 + events * 10)
-            double productivityScore = (habitCount * 20) + (eventCount * 10);
-
-            seriesProd.getData().add(new XYChart.Data<>(
-                    d.format(DateTimeFormatter.ofPattern("MM-dd")), productivityScore));
-        }
-
-        productivityChart.getData().clear();
-        productivityChart.getData().add(seriesProd);
-
-        // === Mood Chart - Use actual mood data where available ===
         XYChart.Series<String, Number> seriesMood = new XYChart.Series<>();
         seriesMood.setName("Mood Trend");
 
-        // Since we only have getLatestMood(), we'll show recent mood with some
-        // variation
-        // In a real implementation, you'd have a getMoodsInRange() method
-        String latestMood = DatabaseManager.getLatestMood();
-        int baseMoodValue = getMoodValue(latestMood);
-
-        Random moodVariation = new Random(42); // Fixed seed for consistent "data"
-        for (LocalDate d = start; !d.isAfter(end); d = d.plusDays(1)) {
-            // Simulate mood variation around the latest mood
-            int moodValue = Math.max(1, Math.min(4,
-                    baseMoodValue + moodVariation.nextInt(3) - 1));
-
-            seriesMood.getData().add(new XYChart.Data<>(
-                    d.format(DateTimeFormatter.ofPattern("MM-dd")), moodValue));
+        List<String> labels = data.dayLabels();
+        for (int i = 0; i < labels.size(); i++) {
+            seriesTasks.getData().add(new XYChart.Data<>(labels.get(i), data.tasksPerDay().get(i)));
+            seriesProd.getData().add(new XYChart.Data<>(labels.get(i), data.productivity().get(i)));
+            seriesMood.getData().add(new XYChart.Data<>(labels.get(i), data.moods().get(i)));
         }
 
+        taskChart.getData().clear();
+        taskChart.getData().add(seriesTasks);
+        productivityChart.getData().clear();
+        productivityChart.getData().add(seriesProd);
         moodChart.getData().clear();
         moodChart.getData().add(seriesMood);
     }
 
-    private int getMoodValue(String mood) {
-        if (mood == null)
-            return 3; // Default to "Good"
-        return switch (mood.toLowerCase()) {
-            case "awesome" -> 4;
-            case "good" -> 3;
-            case "tired" -> 2;
-            case "stressed" -> 1;
-            default -> 3;
-        };
+    private void updateCategoryChart(Map<String, Double> byCategory) {
+        List<PieChart.Data> slices = new ArrayList<>();
+        byCategory.forEach((category, amount) -> slices.add(
+                new PieChart.Data(String.format("%s  $%.2f", category, amount), amount)));
+        categoryChart.getData().setAll(slices);
     }
 
-    private void updateWeeklyBars() {
+    private void updateWeeklyBars(List<String> dayNames, List<Double> scores) {
         weeklyOverviewBars.getChildren().clear();
-        LocalDate today = LocalDate.now();
 
         // Last 7 days - show real activity data
-        for (int i = 6; i >= 0; i--) {
-            LocalDate date = today.minusDays(i);
-            String dayName = date.getDayOfWeek().getDisplayName(
-                    java.time.format.TextStyle.SHORT, Locale.ENGLISH);
-
-            // Calculate real activity score based on actual data
-            double score = calculateDayActivityScore(date);
+        for (int i = 0; i < dayNames.size(); i++) {
+            String dayName = dayNames.get(i);
+            double score = scores.get(i);
 
             ProgressBar pb = new ProgressBar(Math.min(1.0, score / 100.0));
             pb.setPrefHeight(120);
@@ -405,31 +313,4 @@ public class AnalyticsView extends ScrollPane {
             weeklyOverviewBars.getChildren().add(barBox);
         }
     }
-
-    private double calculateDayActivityScore(LocalDate date) {
-        String dateStr = date.toString();
-        double score = 0;
-
-        // Habits completed (20 points each, max 60)
-        List<Habit> habits = DatabaseManager.getAllHabits();
-        long habitsCompleted = habits.stream()
-                .filter(h -> h.getCompletedDaysSet().contains(dateStr))
-                .count();
-        score += Math.min(60, habitsCompleted * 20);
-
-        // Events scheduled (5 points each, max 25)
-        List<ScheduleEvent> events = DatabaseManager.getEventsForDate(dateStr);
-        score += Math.min(25, events.size() * 5);
-
-        // Tasks completed on this day (estimate based on creation date, 3 points each,
-        // max 15)
-        List<Task> tasks = DatabaseManager.getAllTasks();
-        long tasksOnDay = tasks.stream()
-                .filter(t -> t.isCompleted() && t.getCreatedAt() != null &&
-                        t.getCreatedAt().startsWith(dateStr))
-                .count();
-        score += Math.min(15, tasksOnDay * 3);
-
-        return score;
-    }
-}
\ No newline at end of file
+}
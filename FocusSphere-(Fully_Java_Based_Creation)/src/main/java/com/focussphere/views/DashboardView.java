@@ -1,7 +1,10 @@
 package com.focussphere.views;
 
 import com.focussphere.App;
-import com.focussphere.db.DatabaseManager;
+import com.focussphere.db.AsyncDatabase;
+import com.focussphere.db.ChangeBus;
+import com.focussphere.db.WriteBehindQueue;
+import javafx.application.Platform;
 import javafx.geometry.*;
 import javafx.scene.control.*;
 import javafx.scene.layout.*;
@@ -43,6 +46,14 @@ public class DashboardView extends ScrollPane {
 
         buildUI();
         setContent(container);
+
+        // Stat cards follow the entities the snapshot is built from
+        ChangeBus.subscribe(change -> {
+            switch (change.entity()) {
+                case TASK, EXPENSE, EVENT, MOOD -> refreshStats();
+                default -> { }
+            }
+        }, Platform::runLater);
     }
 
     private void buildUI() {
@@ -83,24 +94,20 @@ public class DashboardView extends ScrollPane {
         scratchpad.getStyleClass().add("scratchpad");
         scratchpad.setWrapText(true);
 
-        String saved = DatabaseManager.getSetting("scratchpad");
-        if (saved != null)
-            scratchpad.setText(saved);
-
         Label saveStatus = new Label("Auto-saved");
         saveStatus.setStyle("-fx-text-fill:#22c55e; -fx-font-size:11;");
 
         scratchpad.textProperty().addListener((obs, o, n) -> {
             saveStatus.setText("Saving...");
-            DatabaseManager.saveSetting("scratchpad", n);
-            saveStatus.setText("Auto-saved \u2713");
+            WriteBehindQueue.saveSetting("scratchpad", n)
+                    .thenRunAsync(() -> saveStatus.setText("Auto-saved \u2713"), Platform::runLater);
         });
 
         Button clearScratch = new Button("\uD83D\uDDD1");
         clearScratch.getStyleClass().add("icon-button");
         clearScratch.setOnAction(e -> {
             scratchpad.clear();
-            DatabaseManager.saveSetting("scratchpad", "");
+            WriteBehindQueue.saveSetting("scratchpad", "");
         });
 
         HBox scratchHeader = new HBox(10, scratchTitle, new Region() {
@@ -143,18 +150,14 @@ public class DashboardView extends ScrollPane {
         moodBox.setAlignment(Pos.CENTER_LEFT);
 
         String[] moods = { "😄 Awesome", "🙂 Good", "😴 Tired", "😰 Stressed" };
-        String latestMood = DatabaseManager.getLatestMood();
 
         for (String mood : moods) {
             Button mb = new Button(mood);
             mb.getStyleClass().add("mood-button");
-            if (mood.contains(latestMood != null ? latestMood : "---")) {
-                mb.getStyleClass().add("mood-active");
-            }
             mb.setOnAction(e -> {
                 moodBox.getChildren().forEach(n -> ((Button) n).getStyleClass().remove("mood-active"));
                 mb.getStyleClass().add("mood-active");
-                DatabaseManager.logMood(mood.split(" ")[1]);
+                AsyncDatabase.logMoodAsync(mood.split(" ")[1]);
                 app.showToast("Mood logged: " + mood, true);
             });
             moodBox.getChildren().add(mb);
@@ -217,36 +220,39 @@ public class DashboardView extends ScrollPane {
     }
 
     public void refresh() {
-        // Update pending tasks count
-        int pendingCount = DatabaseManager.countPendingTasks();
-        pendingLabel.setText(String.valueOf(pendingCount));
-        
-        // Update total expenses with proper formatting
-        double totalExpenses = DatabaseManager.getTotalExpenses();
-        expenseLabel.setText(String.format("$%.2f", totalExpenses));
-        
-        // Update today's events count
-        int todayEvents = DatabaseManager.countEventsToday();
-        eventsLabel.setText(String.valueOf(todayEvents));
-        
-        // Update mood buttons to reflect current mood
-        String currentMood = DatabaseManager.getLatestMood();
-        if (currentMood != null) {
-            moodBox.getChildren().forEach(node -> {
-                if (node instanceof Button btn) {
-                    btn.getStyleClass().remove("mood-active");
-                    String btnText = btn.getText();
-                    if (btnText.toLowerCase().contains(currentMood.toLowerCase())) {
-                        btn.getStyleClass().add("mood-active");
-                    }
+        refreshStats();
+
+        // Update scratchpad with saved content, unless the user typed meanwhile
+        String before = scratchpad.getText();
+        AsyncDatabase.getSettingAsync("scratchpad").thenAcceptAsync(savedScratch -> {
+            if (savedScratch != null && before.equals(scratchpad.getText())
+                    && !savedScratch.equals(before)) {
+                scratchpad.setText(savedScratch);
+            }
+        }, Platform::runLater);
+    }
+
+    private void refreshStats() {
+        // Pending tasks, expenses, today's events and mood from one snapshot
+        AsyncDatabase.getDashboardSnapshotAsync().thenAcceptAsync(snap -> {
+            pendingLabel.setText(String.valueOf(snap.pendingTasks()));
+            expenseLabel.setText(String.format("$%.2f", snap.totalExpenses()));
+            eventsLabel.setText(String.valueOf(snap.eventsToday()));
+            showMood(snap.latestMood());
+        }, Platform::runLater);
+    }
+
+    private void showMood(String currentMood) {
+        if (currentMood == null)
+            return;
+        moodBox.getChildren().forEach(node -> {
+            if (node instanceof Button btn) {
+                btn.getStyleClass().remove("mood-active");
+                String btnText = btn.getText();
+                if (btnText.toLowerCase().contains(currentMood.toLowerCase())) {
+                    btn.getStyleClass().add("mood-active");
                 }
-            });
-        }
-        
-        // Update scratchpad with saved content
-        String savedScratch = DatabaseManager.getSetting("scratchpad");
-        if (savedScratch != null && !savedScratch.equals(scratchpad.getText())) {
-            scratchpad.setText(savedScratch);
-        }
+            }
+        });
     }
 }
\ No newline at end of file
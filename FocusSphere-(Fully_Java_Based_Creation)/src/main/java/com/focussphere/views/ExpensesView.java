@@ -1,24 +1,65 @@
 package com.focussphere.views;
 
 import com.focussphere.App;
-import com.focussphere.db.DatabaseManager;
+import com.focussphere.db.AsyncDatabase;
+import com.focussphere.db.ChangeBus;
+import com.focussphere.db.DataChange;
+import com.focussphere.model.EpochTime;
 import com.focussphere.model.Expense;
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
 import javafx.geometry.*;
 import javafx.scene.control.*;
 import javafx.scene.layout.*;
 
 import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
 import java.util.*;
 
 public class ExpensesView extends HBox {
 
+    private static final int PAGE_SIZE = 50;
+    private static final double ROW_HEIGHT = 64;
+    private static final DateTimeFormatter HEADER_DATE = DateTimeFormatter.ofPattern("EEEE, MMM d yyyy", Locale.ENGLISH);
+
+    // Same order as getExpensesPage: newest day first, undated (NO_DAY) last
+    private static final Comparator<Expense> LIST_ORDER = Comparator.comparingLong(Expense::getDay)
+            .thenComparingInt(Expense::getId).reversed();
+
     private final App app;
     private TextField descField, amountField, categoryField;
     private DatePicker datePicker;
-    private VBox transactionList;
+    private ListView<LedgerRow> ledger;
     private Label totalLabel, budgetLabel;
     private ProgressBar budgetBar;
     private double monthlyBudget = 1000;
+    private Button setBudgetBtn;
+    private int refreshSeq;
+    private boolean loading;
+
+    // Expenses loaded so far; the last one is the key for the next page
+    private final List<Expense> expenses = new ArrayList<>();
+    private final ObservableList<LedgerRow> rows = FXCollections.observableArrayList();
+    private boolean hasMore, loadingMore;
+
+    // One ledger line: a date header (expense == null, header formatted once) or an expense under it
+    private record LedgerRow(String header, Expense expense) {}
+
+    // Dot and label styles per category colour, built once instead of per row
+    private record CategoryStyle(String dot, String label) {}
+
+    private static final String[] CATEGORY_COLORS = { "#6366f1", "#ec4899", "#14b8a6", "#f59e0b",
+            "#8b5cf6", "#ef4444", "#06b6d4", "#84cc16" };
+    private static final CategoryStyle[] CATEGORY_STYLES = new CategoryStyle[CATEGORY_COLORS.length];
+
+    static {
+        for (int i = 0; i < CATEGORY_COLORS.length; i++) {
+            String color = CATEGORY_COLORS[i];
+            CATEGORY_STYLES[i] = new CategoryStyle("-fx-background-color:" + color + "; -fx-background-radius:4;",
+                    "-fx-text-fill:" + color + "; -fx-font-size:11;");
+        }
+    }
 
     public ExpensesView(App app) {
         this.app = app;
@@ -26,15 +67,18 @@ public class ExpensesView extends HBox {
         setPadding(new Insets(24));
         getStyleClass().add("view-container");
 
-        String savedBudget = DatabaseManager.getSetting("monthlyBudget");
-        if (savedBudget != null) {
-            try {
-                monthlyBudget = Double.parseDouble(savedBudget);
-            } catch (Exception ignore) {
-            }
-        }
-
         buildUI();
+        ChangeBus.subscribe(this::onChange, Platform::runLater);
+
+        AsyncDatabase.getSettingAsync("monthlyBudget").thenAcceptAsync(savedBudget -> {
+            if (savedBudget != null) {
+                try {
+                    monthlyBudget = Double.parseDouble(savedBudget);
+                    setBudgetBtn.setText("Set Budget: $" + String.format("%.0f", monthlyBudget));
+                } catch (Exception ignore) {
+                }
+            }
+        }, Platform::runLater);
     }
 
     private void buildUI() {
@@ -73,7 +117,7 @@ public class ExpensesView extends HBox {
         HBox.setHgrow(rightPane, Priority.ALWAYS);
 
         // Budget bar
-        Button setBudgetBtn = new Button("Set Budget: $" + String.format("%.0f", monthlyBudget));
+        setBudgetBtn = new Button("Set Budget: $" + String.format("%.0f", monthlyBudget));
         setBudgetBtn.getStyleClass().add("accent-button-small");
         setBudgetBtn.setOnAction(e -> {
             TextInputDialog dlg = new TextInputDialog(String.valueOf(monthlyBudget));
@@ -83,9 +127,9 @@ public class ExpensesView extends HBox {
             dlg.showAndWait().ifPresent(val -> {
                 try {
                     monthlyBudget = Double.parseDouble(val);
-                    DatabaseManager.saveSetting("monthlyBudget", val);
+                    AsyncDatabase.saveSettingAsync("monthlyBudget", val);
                     setBudgetBtn.setText("Set Budget: $" + String.format("%.0f", monthlyBudget));
-                    refresh();
+                    refreshTotal();
                 } catch (NumberFormatException ignore) {
                 }
             });
@@ -112,14 +156,17 @@ public class ExpensesView extends HBox {
         HBox totalRow = new HBox(10, totalLabel, totalSub);
         totalRow.setAlignment(Pos.CENTER_LEFT);
 
-        // Transaction list
-        transactionList = new VBox(6);
-        ScrollPane scroll = new ScrollPane(transactionList);
-        scroll.setFitToWidth(true);
-        scroll.getStyleClass().add("view-scroll");
-        VBox.setVgrow(scroll, Priority.ALWAYS);
+        // Transaction ledger: fixed-height recycled rows, grouped under date headers
+        Label emptyLabel = new Label("No expenses recorded yet.");
+        emptyLabel.setStyle("-fx-text-fill:#64748b; -fx-font-size:14; -fx-padding:20;");
+        ledger = new ListView<>(rows);
+        ledger.getStyleClass().add("card-list");
+        ledger.setFixedCellSize(ROW_HEIGHT);
+        ledger.setPlaceholder(emptyLabel);
+        ledger.setCellFactory(lv -> new LedgerCell());
+        VBox.setVgrow(ledger, Priority.ALWAYS);
 
-        rightPane.getChildren().addAll(budgetCard, totalRow, scroll);
+        rightPane.getChildren().addAll(budgetCard, totalRow, ledger);
 
         getChildren().addAll(leftPane, rightPane);
     }
@@ -143,19 +190,107 @@ public class ExpensesView extends HBox {
         if (cat.isEmpty())
             cat = "General";
 
-        DatabaseManager.addExpense(new Expense(desc, amt, date, cat));
         descField.clear();
         amountField.clear();
         categoryField.clear();
-        app.showToast("Expense added!", true);
-        refresh();
+        AsyncDatabase.addExpenseAsync(new Expense(desc, amt, date, cat)).thenRunAsync(
+                () -> app.showToast("Expense added!", true), Platform::runLater);
     }
 
     public void refresh() {
-        transactionList.getChildren().clear();
-        List<Expense> expenses = DatabaseManager.getAllExpenses();
-        double total = DatabaseManager.getTotalExpenses();
+        int seq = ++refreshSeq;
+        // Reload as many rows as are listed so scroll progress survives edits
+        int limit = Math.max(PAGE_SIZE, expenses.size());
+        loading = true;
+        AsyncDatabase.getExpensesPageAsync(null, limit)
+                .thenAcceptBothAsync(AsyncDatabase.getTotalExpensesAsync(), (page, total) -> {
+                    if (seq != refreshSeq)
+                        return;
+                    loading = false;
+                    loadingMore = false;
+                    hasMore = page.size() == limit;
+                    expenses.clear();
+                    expenses.addAll(page);
+                    rebuildRows();
+                    showTotal(total);
+                }, Platform::runLater);
+    }
+
+    private void refreshTotal() {
+        AsyncDatabase.getTotalExpensesAsync().thenAcceptAsync(this::showTotal, Platform::runLater);
+    }
+
+    // Patch the ledger for one committed change instead of reloading
+    private void onChange(DataChange change) {
+        if (!change.is(DataChange.Entity.EXPENSE))
+            return;
+        // A reload in flight may have read the rows before this change
+        if (loading || change.kind() == DataChange.Kind.RESET) {
+            refresh();
+            return;
+        }
+        refreshTotal();
+        if (change.kind() == DataChange.Kind.DELETED) {
+            if (expenses.removeIf(e -> e.getId() == change.id()))
+                rebuildRows();
+            return;
+        }
+        int seq = refreshSeq;
+        AsyncDatabase.getExpenseAsync(change.id()).thenAcceptAsync(e -> {
+            if (seq != refreshSeq)
+                return;
+            expenses.removeIf(old -> old.getId() == change.id());
+            if (e != null)
+                insert(e);
+            rebuildRows();
+        }, Platform::runLater);
+    }
+
+    private void insert(Expense e) {
+        int i = 0;
+        while (i < expenses.size() && LIST_ORDER.compare(expenses.get(i), e) < 0)
+            i++;
+        if (i == expenses.size() && hasMore)
+            return; // sorts into a page that is not loaded yet
+        expenses.add(i, e);
+    }
 
+    // Called as the last rows scroll into view
+    private void loadMore() {
+        if (expenses.isEmpty() || !hasMore || loadingMore)
+            return;
+        loadingMore = true;
+        int seq = refreshSeq; // a refresh in the meantime replaces the list
+        AsyncDatabase.getExpensesPageAsync(expenses.get(expenses.size() - 1), PAGE_SIZE).thenAcceptAsync(page -> {
+            if (seq != refreshSeq)
+                return;
+            loadingMore = false;
+            hasMore = page.size() == PAGE_SIZE;
+            Long day = expenses.isEmpty() ? null : expenses.get(expenses.size() - 1).getDay();
+            expenses.addAll(page);
+            rows.addAll(toRows(page, day));
+        }, Platform::runLater);
+    }
+
+    // Rows are plain records, so rebuilding them touches no nodes; the ledger rebinds only visible cells
+    private void rebuildRows() {
+        rows.setAll(toRows(expenses, null));
+    }
+
+    private static List<LedgerRow> toRows(List<Expense> list, Long previousDay) {
+        List<LedgerRow> out = new ArrayList<>(list.size() + list.size() / 4 + 1);
+        Long day = previousDay;
+        for (Expense e : list) {
+            if (day == null || e.getDay() != day) {
+                day = e.getDay();
+                out.add(new LedgerRow(formatDay(e.getDay()), null));
+            }
+            out.add(new LedgerRow(null, e));
+        }
+        return out;
+    }
+
+    private void showTotal(double total) {
         totalLabel.setText(String.format("$%.2f", total));
 
         double ratio = monthlyBudget > 0 ? total / monthlyBudget : 0;
@@ -172,67 +307,77 @@ public class ExpensesView extends HBox {
         else
             barColor = "#ef4444";
         budgetBar.setStyle("-fx-accent:" + barColor + ";");
-
-        for (Expense e : expenses) {
-            transactionList.getChildren().add(createExpenseCard(e));
-        }
-
-        if (expenses.isEmpty()) {
-            Label empty = new Label("No expenses recorded yet.");
-            empty.setStyle("-fx-text-fill:#64748b; -fx-font-size:14; -fx-padding:20;");
-            transactionList.getChildren().add(empty);
-        }
     }
 
-    private HBox createExpenseCard(Expense e) {
-        // Category color from hash
-        String color = categoryColor(e.getCategory());
-
-        Region catDot = new Region();
-        catDot.setMinSize(8, 8);
-        catDot.setMaxSize(8, 8);
-        catDot.setStyle("-fx-background-color:" + color + "; -fx-background-radius:4;");
-
-        Label catLabel = new Label(e.getCategory());
-        catLabel.setStyle("-fx-text-fill:" + color + "; -fx-font-size:11;");
-
-        Label descLabel = new Label(e.getDescription());
-        descLabel.setStyle("-fx-text-fill:#f1f5f9; -fx-font-weight:bold; -fx-font-size:14;");
-        descLabel.setMaxWidth(Double.MAX_VALUE);
-        HBox.setHgrow(descLabel, Priority.ALWAYS);
+    /** One recycled ledger row: either a date header or an expense card. */
+    private class LedgerCell extends ListCell<LedgerRow> {
+        private final Label header = new Label();
+        private final Region catDot = new Region();
+        private final Label catLabel = new Label();
+        private final Label descLabel = new Label();
+        private final Label amtLabel = new Label();
+        private final HBox card;
+
+        LedgerCell() {
+            header.setStyle("-fx-text-fill:#94a3b8; -fx-font-size:12; -fx-font-weight:bold; -fx-padding:24 4 0 4;");
+
+            catDot.setMinSize(8, 8);
+            catDot.setMaxSize(8, 8);
+            descLabel.setStyle("-fx-text-fill:#f1f5f9; -fx-font-weight:bold; -fx-font-size:14;");
+            descLabel.setMaxWidth(Double.MAX_VALUE);
+            amtLabel.setStyle("-fx-text-fill:#ef4444; -fx-font-weight:bold; -fx-font-size:14;");
+
+            Button delBtn = new Button("\u2715");
+            delBtn.getStyleClass().add("icon-button-danger");
+            delBtn.setOnAction(ev -> {
+                AsyncDatabase.deleteExpenseAsync(getItem().expense().getId()).thenRunAsync(
+                        () -> app.showToast("Expense removed", false), Platform::runLater);
+            });
 
-        Label dateLabel = new Label(e.getDate());
-        dateLabel.setStyle("-fx-text-fill:#64748b; -fx-font-size:11;");
+            HBox catRow = new HBox(6, catDot, catLabel);
+            catRow.setAlignment(Pos.CENTER_LEFT);
+            VBox left = new VBox(2, catRow, descLabel);
+            HBox.setHgrow(left, Priority.ALWAYS);
 
-        Label amtLabel = new Label(String.format("-$%.2f", e.getAmount()));
-        amtLabel.setStyle("-fx-text-fill:#ef4444; -fx-font-weight:bold; -fx-font-size:14;");
+            card = new HBox(10, left, amtLabel, delBtn);
+            card.setAlignment(Pos.CENTER_LEFT);
+            card.getStyleClass().add("task-card");
+            card.setPadding(new Insets(8, 16, 8, 16));
+        }
 
-        Button delBtn = new Button("\u2715");
-        delBtn.getStyleClass().add("icon-button-danger");
-        delBtn.setOnAction(ev -> {
-            DatabaseManager.deleteExpense(e.getId());
-            app.showToast("Expense removed", false);
-            refresh();
-        });
+        @Override
+        protected void updateItem(LedgerRow row, boolean empty) {
+            super.updateItem(row, empty);
+            if (empty || row == null) {
+                setGraphic(null);
+                return;
+            }
+            if (getIndex() >= rows.size() - 1)
+                loadMore();
 
-        VBox left = new VBox(2, new HBox(6, catDot, catLabel), descLabel);
-        HBox.setHgrow(left, Priority.ALWAYS);
-        VBox right = new VBox(2, amtLabel, dateLabel);
-        right.setAlignment(Pos.CENTER_RIGHT);
+            if (row.expense() == null) {
+                header.setText(row.header());
+                setGraphic(header);
+                return;
+            }
+            Expense e = row.expense();
+            CategoryStyle style = categoryStyle(e.getCategory());
+            catDot.setStyle(style.dot());
+            catLabel.setText(e.getCategory());
+            catLabel.setStyle(style.label());
+            descLabel.setText(e.getDescription());
+            amtLabel.setText(String.format("-$%.2f", e.getAmount()));
+            setGraphic(card);
+        }
+    }
 
-        HBox card = new HBox(10, left, right, delBtn);
-        card.setAlignment(Pos.CENTER_LEFT);
-        card.getStyleClass().add("task-card");
-        card.setPadding(new Insets(12, 16, 12, 16));
-        return card;
+    private static String formatDay(long day) {
+        return day == EpochTime.NO_DAY ? "No date" : LocalDate.ofEpochDay(day).format(HEADER_DATE);
     }
 
-    private String categoryColor(String cat) {
+    private static CategoryStyle categoryStyle(String cat) {
         if (cat == null || cat.isBlank())
-            return "#6366f1";
-        int hash = Math.abs(cat.hashCode());
-        String[] colors = { "#6366f1", "#ec4899", "#14b8a6", "#f59e0b",
-                "#8b5cf6", "#ef4444", "#06b6d4", "#84cc16" };
-        return colors[hash % colors.length];
+            return CATEGORY_STYLES[0];
+        return CATEGORY_STYLES[Math.abs(cat.hashCode() % CATEGORY_COLORS.length)];
     }
-}
\ No newline at end of file
+}
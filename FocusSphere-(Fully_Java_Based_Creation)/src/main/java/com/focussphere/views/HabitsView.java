@@ -1,20 +1,33 @@
 package com.focussphere.views;
 
 import com.focussphere.App;
-import com.focussphere.db.DatabaseManager;
+import com.focussphere.components.HabitHeatmap;
+import com.focussphere.db.AsyncDatabase;
+import com.focussphere.db.ChangeBus;
+import com.focussphere.db.DataChange;
+import com.focussphere.model.EpochTime;
 import com.focussphere.model.Habit;
+import com.focussphere.model.HabitDays;
+import javafx.application.Platform;
 import javafx.geometry.*;
 import javafx.scene.control.*;
 import javafx.scene.layout.*;
 
 import java.time.LocalDate;
-import java.time.format.TextStyle;
 import java.util.*;
 
 public class HabitsView extends VBox {
 
     private final App app;
     private VBox habitListBox;
+    private HabitHeatmap overview;
+    private Label overviewLabel;
+    private Label emptyLabel;
+    private int refreshSeq;
+    private boolean loading;
+
+    // Listed cards by habit id, so a change patches one card
+    private final Map<Integer, VBox> cards = new HashMap<>();
 
     public HabitsView(App app) {
         this.app = app;
@@ -22,6 +35,7 @@ public class HabitsView extends VBox {
         setPadding(new Insets(24));
         getStyleClass().add("view-container");
         buildUI();
+        ChangeBus.subscribe(this::onChange, Platform::runLater);
     }
 
     private void buildUI() {
@@ -37,9 +51,8 @@ public class HabitsView extends VBox {
             dlg.setContentText("Habit name:");
             dlg.showAndWait().ifPresent(name -> {
                 if (!name.isBlank()) {
-                    DatabaseManager.addHabit(new Habit(name));
-                    app.showToast("Habit created!", true);
-                    refresh();
+                    AsyncDatabase.addHabitAsync(new Habit(name)).thenRunAsync(
+                            () -> app.showToast("Habit created!", true), Platform::runLater);
                 }
             });
         });
@@ -52,8 +65,20 @@ public class HabitsView extends VBox {
                 }, addBtn);
         header.setAlignment(Pos.CENTER_LEFT);
 
+        // All habits: number completed per day over the last year
+        overview = new HabitHeatmap();
+        overviewLabel = new Label();
+        overviewLabel.setStyle("-fx-text-fill:#94a3b8; -fx-font-size:12;");
+        Label overviewTitle = new Label("Last 365 days");
+        overviewTitle.setStyle("-fx-text-fill:#f1f5f9; -fx-font-size:14; -fx-font-weight:bold;");
+        VBox overviewCard = new VBox(10, new HBox(10, overviewTitle, overviewLabel), overview);
+        overviewCard.getStyleClass().add("card");
+        overviewCard.setPadding(new Insets(16));
+
         habitListBox = new VBox(12);
-        ScrollPane scroll = new ScrollPane(habitListBox);
+        emptyLabel = new Label("No habits yet. Create one to start tracking!");
+        emptyLabel.setStyle("-fx-text-fill:#64748b; -fx-font-size:14; -fx-padding:30;");
+        ScrollPane scroll = new ScrollPane(new VBox(12, overviewCard, habitListBox));
         scroll.setFitToWidth(true);
         scroll.getStyleClass().add("view-scroll");
         VBox.setVgrow(scroll, Priority.ALWAYS);
@@ -62,18 +87,92 @@ public class HabitsView extends VBox {
     }
 
     public void refresh() {
+        int seq = ++refreshSeq;
+        loading = true;
+        AsyncDatabase.getAllHabitsAsync().thenAcceptAsync(habits -> {
+            if (seq == refreshSeq) render(habits);
+        }, Platform::runLater);
+        refreshOverview();
+    }
+
+    private void refreshOverview() {
+        LocalDate today = LocalDate.now();
+        LocalDate from = today.minusWeeks(53);
+        AsyncDatabase.countHabitCompletionsPerDayAsync(from.toString(), today.toString())
+                .thenAcceptBothAsync(AsyncDatabase.getAllHabitsAsync(), (perDay, habits) -> {
+                    // Index by day once so painting never builds date strings
+                    int[] counts = new int[(int) (today.toEpochDay() - from.toEpochDay()) + 1];
+                    long base = from.toEpochDay();
+                    int total = 0;
+                    for (Map.Entry<String, Integer> e : perDay.entrySet()) {
+                        // Days are stored as text; skip any that are not a valid date in range
+                        long day = EpochTime.parseDay(e.getKey());
+                        if (day == EpochTime.NO_DAY || day < base || day - base >= counts.length) continue;
+                        counts[(int) (day - base)] = e.getValue();
+                        total += e.getValue();
+                    }
+                    overview.setValues(day -> day < base || day - base >= counts.length ? 0 : counts[(int) (day - base)],
+                            habits.size());
+                    overviewLabel.setText(total + " completions across " + habits.size()
+                            + (habits.size() == 1 ? " habit" : " habits"));
+                }, Platform::runLater)
+                .exceptionally(ex -> {
+                    ex.printStackTrace();
+                    Platform.runLater(() -> overviewLabel.setText("Could not load habit history"));
+                    return null;
+                });
+    }
+
+    // Rebuild only the changed habit's card; the streak needs a fresh read
+    private void onChange(DataChange change) {
+        if (!change.is(DataChange.Entity.HABIT))
+            return;
+        refreshOverview();
+        // A reload in flight may have read the rows before this change
+        if (loading || change.kind() == DataChange.Kind.RESET) {
+            refresh();
+            return;
+        }
+        if (change.kind() == DataChange.Kind.DELETED) {
+            VBox card = cards.remove(change.id());
+            habitListBox.getChildren().remove(card);
+            if (cards.isEmpty())
+                habitListBox.getChildren().setAll(emptyLabel);
+            return;
+        }
+        int seq = refreshSeq;
+        AsyncDatabase.getAllHabitsAsync().thenAcceptAsync(habits -> {
+            if (seq != refreshSeq)
+                return;
+            for (Habit h : habits) {
+                if (h.getId() != change.id())
+                    continue;
+                VBox card = createHabitCard(h);
+                VBox old = cards.put(h.getId(), card);
+                if (old != null) {
+                    habitListBox.getChildren().set(habitListBox.getChildren().indexOf(old), card);
+                } else {
+                    habitListBox.getChildren().remove(emptyLabel);
+                    habitListBox.getChildren().add(0, card); // newest first
+                }
+            }
+        }, Platform::runLater);
+    }
+
+    private void render(List<Habit> habits) {
+        loading = false;
         habitListBox.getChildren().clear();
-        List<Habit> habits = DatabaseManager.getAllHabits();
+        cards.clear();
 
         if (habits.isEmpty()) {
-            Label empty = new Label("No habits yet. Create one to start tracking!");
-            empty.setStyle("-fx-text-fill:#64748b; -fx-font-size:14; -fx-padding:30;");
-            habitListBox.getChildren().add(empty);
+            habitListBox.getChildren().add(emptyLabel);
             return;
         }
 
         for (Habit h : habits) {
-            habitListBox.getChildren().add(createHabitCard(h));
+            VBox card = createHabitCard(h);
+            cards.put(h.getId(), card);
+            habitListBox.getChildren().add(card);
         }
     }
 
@@ -82,15 +181,15 @@ public class HabitsView extends VBox {
         Label name = new Label(h.getName());
         name.setStyle("-fx-text-fill:#f1f5f9; -fx-font-size:16; -fx-font-weight:bold;");
 
-        Label streak = new Label("\uD83D\uDD25 " + h.getCurrentStreak() + " day streak");
+        Label streak = new Label("\uD83D\uDD25 " + h.getCurrentStreak() + " day streak \u00B7 best "
+                + h.getLongestStreak());
         streak.setStyle("-fx-text-fill:#f59e0b; -fx-font-size:12;");
 
         Button delBtn = new Button("\uD83D\uDDD1");
         delBtn.getStyleClass().add("icon-button-danger");
         delBtn.setOnAction(e -> {
-            DatabaseManager.deleteHabit(h.getId());
-            app.showToast("Habit deleted", false);
-            refresh();
+            AsyncDatabase.deleteHabitAsync(h.getId()).thenRunAsync(
+                    () -> app.showToast("Habit deleted", false), Platform::runLater);
         });
 
         HBox headerRow = new HBox(10, name, streak,
@@ -101,50 +200,22 @@ public class HabitsView extends VBox {
                 }, delBtn);
         headerRow.setAlignment(Pos.CENTER_LEFT);
 
-        // 7-day grid
-        HBox dayGrid = new HBox(8);
-        dayGrid.setAlignment(Pos.CENTER_LEFT);
-        LocalDate today = LocalDate.now();
-        Set<String> completed = h.getCompletedDaysSet();
-
-        for (int i = 6; i >= 0; i--) {
-            LocalDate day = today.minusDays(i);
-            String dateStr = day.toString();
-            String dayInitial = day.getDayOfWeek()
-                    .getDisplayName(TextStyle.SHORT, Locale.ENGLISH).substring(0, 2);
-
-            VBox dayBox = new VBox(4);
-            dayBox.setAlignment(Pos.CENTER);
-            dayBox.setPrefSize(48, 56);
-            dayBox.getStyleClass().add("habit-day");
-
-            Label dl = new Label(dayInitial);
-            dl.setStyle("-fx-text-fill:#94a3b8; -fx-font-size:10;");
-
-            Label dayNum = new Label(String.valueOf(day.getDayOfMonth()));
-
-            if (completed.contains(dateStr)) {
-                dayBox.getStyleClass().add("habit-day-active");
-                dayNum.setStyle("-fx-text-fill:white; -fx-font-weight:bold; -fx-font-size:14;");
-            } else {
-                dayNum.setStyle("-fx-text-fill:#64748b; -fx-font-size:14;");
+        // Year heatmap; clicking a day toggles it. The card flips its own copy of
+        // the days so it redraws before the write lands; the HABIT change then rebuilds it.
+        HabitDays days = h.getDays().copy();
+        HabitHeatmap heatmap = new HabitHeatmap();
+        heatmap.setValues(day -> days.contains(day) ? 1 : 0, 1);
+        heatmap.setOnToggle(day -> {
+            boolean done = !days.contains(day);
+            days.set(day.toEpochDay(), done);
+            heatmap.redraw();
+            if (done) {
+                app.showToast(h.getName() + " — Day completed! \uD83C\uDF89", true);
             }
+            AsyncDatabase.setHabitDayAsync(h.getId(), day.toString(), done);
+        });
 
-            dayBox.getChildren().addAll(dl, dayNum);
-            dayBox.setCursor(javafx.scene.Cursor.HAND);
-            dayBox.setOnMouseClicked(e -> {
-                h.toggleDay(dateStr);
-                DatabaseManager.updateHabitDays(h.getId(), h.getCompletedDays());
-                if (h.getCompletedDaysSet().contains(dateStr)) {
-                    app.showToast(h.getName() + " — Day completed! \uD83C\uDF89", true);
-                }
-                refresh();
-            });
-
-            dayGrid.getChildren().add(dayBox);
-        }
-
-        VBox card = new VBox(12, headerRow, dayGrid);
+        VBox card = new VBox(12, headerRow, heatmap);
         card.getStyleClass().add("card");
         card.setPadding(new Insets(16));
         return card;
@@ -1,18 +1,27 @@
 package com.focussphere.views;
 
 import com.focussphere.App;
-import com.focussphere.db.DatabaseManager;
+import com.focussphere.db.AsyncDatabase;
+import com.focussphere.db.AutosaveService;
+import com.focussphere.db.ChangeBus;
+import com.focussphere.db.DataChange;
 import com.focussphere.model.Note;
+import com.focussphere.model.TextStats;
+import javafx.application.Platform;
 import javafx.geometry.*;
 import javafx.scene.control.*;
 import javafx.scene.layout.*;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 public class NotesView extends HBox {
 
+    private static final int PAGE_SIZE = 50;
+
     private final App app;
     private VBox noteListBox;
     private TextField searchField;
@@ -22,13 +31,23 @@ public class NotesView extends HBox {
     private VBox editorPane;
     private VBox emptyState;
     private Note currentNote;
-    private Timer debounceTimer;
+    private CompletableFuture<Void> pendingSave; // save the status label is waiting for
+    private boolean openingNote; // editor text is being set, not typed
+    private final TextStats stats = new TextStats();
+    private int refreshSeq;
+    private boolean loading;
+    private Button loadMoreBtn;
+
+    // Notes currently listed; the last one is the key for the next page
+    private final List<Note> shown = new ArrayList<>();
+    private final Map<Integer, VBox> items = new HashMap<>();
 
     public NotesView(App app) {
         this.app = app;
         setSpacing(0);
         getStyleClass().add("view-container");
         buildUI();
+        ChangeBus.subscribe(this::onChange, Platform::runLater);
     }
 
     private void buildUI() {
@@ -50,6 +69,10 @@ public class NotesView extends HBox {
         searchField.textProperty().addListener((obs, o, n) -> refreshList());
 
         noteListBox = new VBox(6);
+        loadMoreBtn = new Button("Load more");
+        loadMoreBtn.getStyleClass().add("accent-button-small");
+        loadMoreBtn.setMaxWidth(Double.MAX_VALUE);
+        loadMoreBtn.setOnAction(e -> loadMore());
         ScrollPane listScroll = new ScrollPane(noteListBox);
         listScroll.setFitToWidth(true);
         listScroll.getStyleClass().add("view-scroll");
@@ -92,14 +115,18 @@ public class NotesView extends HBox {
         contentArea.setWrapText(true);
         contentArea.getStyleClass().add("note-content");
         VBox.setVgrow(contentArea, Priority.ALWAYS);
-        contentArea.textProperty().addListener((obs, o, n) -> {
-            scheduleAutoSave();
-            if (currentNote != null) {
-                wordCountLabel.setText(currentNote.getWordCount() + " words — but let me recalc...");
-                int wc = n == null || n.isBlank() ? 0 : n.trim().split("\\s+").length;
-                wordCountLabel.setText(wc + " words");
+        contentArea.textProperty().addListener((obs, o, n) -> scheduleAutoSave());
+        // Stats follow each edit's delta instead of recounting the whole note
+        contentArea.setTextFormatter(new TextFormatter<String>(change -> {
+            if (change.isContentChange() && !openingNote) {
+                String text = change.getControlText();
+                int start = change.getRangeStart(), end = change.getRangeEnd();
+                stats.apply(start > 0 ? text.charAt(start - 1) : ' ', text.substring(start, end),
+                        change.getText(), end < text.length() ? text.charAt(end) : ' ');
+                showStats();
             }
-        });
+            return change;
+        }));
 
         // Footer
         wordCountLabel = new Label("0 words");
@@ -111,11 +138,11 @@ public class NotesView extends HBox {
         deleteNoteBtn.getStyleClass().add("danger-button-small");
         deleteNoteBtn.setOnAction(e -> {
             if (currentNote != null) {
-                DatabaseManager.deleteNote(currentNote.getId());
+                int id = currentNote.getId();
                 currentNote = null;
                 showEmptyState();
-                refreshList();
-                app.showToast("Note deleted", false);
+                AsyncDatabase.deleteNoteAsync(id).thenRunAsync(
+                        () -> app.showToast("Note deleted", false), Platform::runLater);
             }
         });
 
@@ -169,82 +196,185 @@ public class NotesView extends HBox {
 
     private void createNewNote() {
         Note n = new Note("Untitled", "");
-        int id = DatabaseManager.addNote(n);
-        n.setId(id);
-        selectNote(n);
-        refreshList();
-        titleField.requestFocus();
-        titleField.selectAll();
+        AsyncDatabase.addNoteAsync(n).thenAcceptAsync(id -> {
+            n.setId(id);
+            selectNote(n);
+            titleField.requestFocus();
+            titleField.selectAll();
+        }, Platform::runLater);
     }
 
     private void selectNote(Note n) {
+        if (currentNote != null) {
+            if (currentNote.getId() == n.getId()) return; // keep unsaved text in the editor
+            AutosaveService.flush(currentNote.getId());
+        }
+        AutosaveService.open(n);
         currentNote = n;
         showEditor();
+        openingNote = true;
         titleField.setText(n.getTitle());
         contentArea.setText(n.getContent() != null ? n.getContent() : "");
-        int wc = n.getContent() == null || n.getContent().isBlank() ? 0
-                : n.getContent().trim().split("\\s+").length;
-        wordCountLabel.setText(wc + " words");
+        openingNote = false;
+        pendingSave = null;
+        stats.reset(n.getContent());
+        showStats();
         saveStatusLabel.setText("");
+        items.forEach((id, item) -> {
+            item.getStyleClass().remove("note-list-item-active");
+            if (id == n.getId())
+                item.getStyleClass().add("note-list-item-active");
+        });
+    }
+
+    /** Load a note by id and open it in the editor. */
+    public void openNote(int id) {
+        AsyncDatabase.getNoteAsync(id).thenAcceptAsync(n -> {
+            if (n == null) return;
+            selectNote(n);
+        }, Platform::runLater);
+    }
+
+    private void showStats() {
+        wordCountLabel.setText(String.format("%,d words \u00B7 %,d chars \u00B7 %,d lines \u00B7 %d min read",
+                stats.words(), stats.characters(), stats.lines(), stats.readingMinutes()));
     }
 
     private void scheduleAutoSave() {
-        if (currentNote == null)
+        if (currentNote == null || openingNote)
             return;
+        currentNote.setTitle(titleField.getText());
+        currentNote.setContent(contentArea.getText());
+        CompletableFuture<Void> saved = AutosaveService.edit(
+                currentNote.getId(), currentNote.getTitle(), currentNote.getContent());
+        if (saved == pendingSave)
+            return; // already waiting for this save
+        pendingSave = saved;
         saveStatusLabel.setText("Saving...");
-        if (debounceTimer != null)
-            debounceTimer.cancel();
-        debounceTimer = new Timer();
-        debounceTimer.schedule(new TimerTask() {
-            @Override
-            public void run() {
-                javafx.application.Platform.runLater(() -> {
-                    currentNote.setTitle(titleField.getText());
-                    currentNote.setContent(contentArea.getText());
-                    DatabaseManager.updateNote(currentNote);
-                    saveStatusLabel.setText("Saved \u2713");
-                    refreshList();
-                });
-            }
-        }, 600);
+        saved.whenCompleteAsync((v, ex) -> {
+            if (pendingSave == saved) saveStatusLabel.setText(ex == null ? "Saved \u2713" : "Not saved");
+        }, Platform::runLater);
     }
 
     private void refreshList() {
-        noteListBox.getChildren().clear();
-        List<Note> notes = DatabaseManager.getAllNotes();
-        String query = searchField.getText().toLowerCase().trim();
+        int seq = ++refreshSeq;
+        loading = true;
+        String query = searchField.getText().trim();
+        if (!query.isEmpty()) {
+            // Best matches from the full-text index; no further pages
+            AsyncDatabase.searchNotesAsync(query, PAGE_SIZE).thenAcceptAsync(notes -> {
+                if (seq == refreshSeq) renderList(notes, false);
+            }, Platform::runLater);
+            return;
+        }
+        int limit = Math.max(PAGE_SIZE, shown.size());
+        AsyncDatabase.getNotesPageAsync(null, limit).thenAcceptAsync(notes -> {
+            if (seq == refreshSeq) renderList(notes, notes.size() == limit);
+        }, Platform::runLater);
+    }
 
-        for (Note n : notes) {
-            if (!query.isEmpty()) {
-                boolean match = n.getTitle().toLowerCase().contains(query) ||
-                        (n.getContent() != null && n.getContent().toLowerCase().contains(query));
-                if (!match)
-                    continue;
+    // Patch the listed items for one committed change instead of reloading
+    private void onChange(DataChange change) {
+        if (!change.is(DataChange.Entity.NOTE))
+            return;
+        // A reload in flight may have read the rows before this change
+        if (loading || change.kind() == DataChange.Kind.RESET) {
+            refreshList();
+            return;
+        }
+        if (change.kind() == DataChange.Kind.DELETED) {
+            removeItem(change.id());
+            return;
+        }
+        int seq = refreshSeq;
+        AsyncDatabase.getNoteAsync(change.id()).thenAcceptAsync(n -> {
+            if (seq != refreshSeq || n == null)
+                return;
+            boolean searching = !searchField.getText().isBlank();
+            VBox old = items.get(n.getId());
+            if (searching) {
+                // Keep the ranked order; only refresh a listed match
+                if (old != null)
+                    replaceItem(old, n);
+            } else {
+                // Created or just edited, so it is the most recent
+                removeItem(n.getId());
+                VBox item = createNoteItem(n);
+                shown.add(0, n);
+                items.put(n.getId(), item);
+                noteListBox.getChildren().add(0, item);
             }
+        }, Platform::runLater);
+    }
 
-            VBox item = new VBox(2);
-            item.getStyleClass().add("note-list-item");
-            item.setPadding(new Insets(10, 12, 10, 12));
-            item.setCursor(javafx.scene.Cursor.HAND);
-
-            Label t = new Label(n.getTitle());
-            t.setStyle("-fx-text-fill:#f1f5f9; -fx-font-weight:bold; -fx-font-size:13;");
+    private void replaceItem(VBox old, Note n) {
+        VBox item = createNoteItem(n);
+        int i = noteListBox.getChildren().indexOf(old);
+        noteListBox.getChildren().set(i, item);
+        shown.set(i, n);
+        items.put(n.getId(), item);
+    }
 
-            String preview = n.getContent() != null
-                    ? n.getContent().substring(0, Math.min(n.getContent().length(), 60))
-                    : "";
-            Label p = new Label(preview);
-            p.setStyle("-fx-text-fill:#64748b; -fx-font-size:11;");
+    private void removeItem(int id) {
+        VBox item = items.remove(id);
+        if (item == null)
+            return;
+        shown.removeIf(n -> n.getId() == id);
+        noteListBox.getChildren().remove(item);
+    }
 
-            item.getChildren().addAll(t, p);
+    private void loadMore() {
+        if (shown.isEmpty())
+            return;
+        int seq = refreshSeq; // a refresh in the meantime replaces the list
+        AsyncDatabase.getNotesPageAsync(shown.get(shown.size() - 1), PAGE_SIZE).thenAcceptAsync(notes -> {
+            if (seq == refreshSeq) appendList(notes, notes.size() == PAGE_SIZE);
+        }, Platform::runLater);
+    }
 
-            if (currentNote != null && currentNote.getId() == n.getId()) {
-                item.getStyleClass().add("note-list-item-active");
-            }
+    private void renderList(List<Note> notes, boolean more) {
+        loading = false;
+        noteListBox.getChildren().clear();
+        shown.clear();
+        items.clear();
+        appendList(notes, more);
+    }
 
-            item.setOnMouseClicked(e -> selectNote(n));
+    private void appendList(List<Note> notes, boolean more) {
+        noteListBox.getChildren().remove(loadMoreBtn);
+        for (Note n : notes) {
+            VBox item = createNoteItem(n);
+            shown.add(n);
+            items.put(n.getId(), item);
             noteListBox.getChildren().add(item);
         }
+        if (more)
+            noteListBox.getChildren().add(loadMoreBtn);
+    }
+
+    private VBox createNoteItem(Note n) {
+        VBox item = new VBox(2);
+        item.getStyleClass().add("note-list-item");
+        item.setPadding(new Insets(10, 12, 10, 12));
+        item.setCursor(javafx.scene.Cursor.HAND);
+
+        Label t = new Label(n.getTitle());
+        t.setStyle("-fx-text-fill:#f1f5f9; -fx-font-weight:bold; -fx-font-size:13;");
+
+        String preview = n.getContent() != null
+                ? n.getContent().substring(0, Math.min(n.getContent().length(), 60))
+                : "";
+        Label p = new Label(preview);
+        p.setStyle("-fx-text-fill:#64748b; -fx-font-size:11;");
+
+        item.getChildren().addAll(t, p);
+
+        if (currentNote != null && currentNote.getId() == n.getId()) {
+            item.getStyleClass().add("note-list-item-active");
+        }
+
+        item.setOnMouseClicked(e -> selectNote(n));
+        return item;
     }
 
     public void refresh() {
@@ -1,22 +1,45 @@
 package com.focussphere.views;
 
 import com.focussphere.App;
-import com.focussphere.db.DatabaseManager;
+import com.focussphere.components.DayTimeline;
+import com.focussphere.components.EventLayout;
+import com.focussphere.components.MonthCalendar;
+import com.focussphere.db.AsyncDatabase;
+import com.focussphere.db.ChangeBus;
+import com.focussphere.db.DataChange;
 import com.focussphere.model.ScheduleEvent;
+import javafx.application.Platform;
 import javafx.geometry.*;
 import javafx.scene.control.*;
 import javafx.scene.layout.*;
 
 import java.time.LocalDate;
-import java.time.LocalTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.TextStyle;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 
 public class ScheduleView extends VBox {
 
+    private enum Mode { DAY, WEEK, MONTH }
+
+    private static final DateTimeFormatter DAY_FMT = DateTimeFormatter.ofPattern("EEEE, MMM d, yyyy", Locale.ENGLISH);
+    private static final DateTimeFormatter SHORT_FMT = DateTimeFormatter.ofPattern("MMM d", Locale.ENGLISH);
+    private static final DateTimeFormatter MONTH_FMT = DateTimeFormatter.ofPattern("MMMM yyyy", Locale.ENGLISH);
+
     private final App app;
-    private Pane timelinePane;
+    private Mode mode = Mode.DAY;
+    private LocalDate anchor = LocalDate.now();
+    private DayTimeline timeline;
+    private MonthCalendar monthCalendar;
+    private HBox dayHeaders;
+    private VBox timelineBox;
+    private StackPane body;
     private Label dateLabel;
-    private static final double HOUR_HEIGHT = 60;
+    private ComboBox<String> modeBox;
+    private int refreshSeq;
 
     public ScheduleView(App app) {
         this.app = app;
@@ -24,124 +47,181 @@ public class ScheduleView extends VBox {
         setPadding(new Insets(24));
         getStyleClass().add("view-container");
         buildUI();
+        ChangeBus.subscribe(change -> {
+            if (change.is(DataChange.Entity.EVENT))
+                refresh();
+        }, Platform::runLater);
     }
 
     private void buildUI() {
         Label title = new Label("\uD83D\uDCC5  Schedule");
         title.getStyleClass().add("view-title");
 
-        dateLabel = new Label(LocalDate.now().toString());
+        dateLabel = new Label();
         dateLabel.setStyle("-fx-text-fill:#94a3b8; -fx-font-size:13;");
 
+        Button prevBtn = new Button("\u2039");
+        prevBtn.getStyleClass().add("icon-button");
+        prevBtn.setOnAction(e -> navigate(-1));
+        Button todayBtn = new Button("Today");
+        todayBtn.getStyleClass().add("icon-button");
+        todayBtn.setOnAction(e -> {
+            anchor = LocalDate.now();
+            refresh();
+        });
+        Button nextBtn = new Button("\u203A");
+        nextBtn.getStyleClass().add("icon-button");
+        nextBtn.setOnAction(e -> navigate(1));
+
+        modeBox = new ComboBox<>();
+        modeBox.getItems().addAll("Day", "Week", "Month");
+        modeBox.setValue("Day");
+        modeBox.setOnAction(e -> {
+            mode = Mode.values()[modeBox.getSelectionModel().getSelectedIndex()];
+            refresh();
+        });
+
         Button addBtn = new Button("+ Add Block");
         addBtn.getStyleClass().add("accent-button");
         addBtn.setOnAction(e -> showEventDialog());
 
-        HBox header = new HBox(15, title, dateLabel,
+        HBox header = new HBox(10, title, dateLabel,
                 new Region() {
                     {
                         HBox.setHgrow(this, Priority.ALWAYS);
                     }
-                }, addBtn);
+                }, prevBtn, todayBtn, nextBtn, modeBox, addBtn);
         header.setAlignment(Pos.CENTER_LEFT);
 
-        // Timeline
-        timelinePane = new Pane();
-        timelinePane.setPrefHeight(24 * HOUR_HEIGHT);
-        timelinePane.setMinHeight(24 * HOUR_HEIGHT);
-        timelinePane.getStyleClass().add("timeline-pane");
+        // Day and week: canvas grid with event overlays, one column per day
+        timeline = new DayTimeline();
+        timeline.setOnDelete(ev -> AsyncDatabase.deleteEventAsync(ev.getId()).thenRunAsync(
+                () -> app.showToast("Event deleted", false), Platform::runLater));
 
-        ScrollPane scroll = new ScrollPane(timelinePane);
+        ScrollPane scroll = new ScrollPane(timeline);
         scroll.setFitToWidth(true);
         scroll.getStyleClass().add("view-scroll");
         VBox.setVgrow(scroll, Priority.ALWAYS);
 
         // Auto-scroll to current hour
         javafx.application.Platform.runLater(() -> {
-            double scrollTo = (LocalTime.now().getHour() - 1) * HOUR_HEIGHT /
-                    (24 * HOUR_HEIGHT);
+            double scrollTo = (DayTimeline.currentY() - DayTimeline.HOUR_HEIGHT) /
+                    (24 * DayTimeline.HOUR_HEIGHT);
             scroll.setVvalue(Math.max(0, scrollTo));
         });
 
-        getChildren().addAll(header, scroll);
+        // Week day names above the columns; the left padding matches the hour gutter
+        dayHeaders = new HBox();
+        dayHeaders.setPadding(new Insets(0, 10, 0, 80));
+        timelineBox = new VBox(6, dayHeaders, scroll);
+
+        // Month: 6x7 grid of day cells; clicking a day opens it in day mode
+        monthCalendar = new MonthCalendar();
+        monthCalendar.setOnDayClicked(day -> {
+            anchor = day;
+            modeBox.setValue("Day");
+        });
+
+        body = new StackPane(timelineBox);
+        VBox.setVgrow(body, Priority.ALWAYS);
+
+        getChildren().addAll(header, body);
     }
 
+    private void navigate(int step) {
+        anchor = shift(anchor, step);
+        refresh();
+    }
+
+    private LocalDate shift(LocalDate day, int step) {
+        return switch (mode) {
+            case DAY -> day.plusDays(step);
+            case WEEK -> day.plusWeeks(step);
+            case MONTH -> day.plusMonths(step);
+        };
+    }
+
+    // First and last day loaded for the period around {@code day}
+    private LocalDate rangeStart(LocalDate day) {
+        return switch (mode) {
+            case DAY -> day;
+            case WEEK -> day.minusDays(day.getDayOfWeek().getValue() - 1);
+            case MONTH -> MonthCalendar.gridStart(YearMonth.from(day));
+        };
+    }
+
+    private LocalDate rangeEnd(LocalDate day) {
+        LocalDate start = rangeStart(day);
+        return switch (mode) {
+            case DAY -> start;
+            case WEEK -> start.plusDays(6);
+            case MONTH -> start.plusDays(MonthCalendar.DAYS - 1);
+        };
+    }
+
+    /**
+     * Load the shown period with one range query (plus the per-day aggregate
+     * in month mode), then warm the cache for the periods on either side so
+     * the next navigation is served from memory.
+     */
     public void refresh() {
-        timelinePane.getChildren().clear();
-        String today = LocalDate.now().toString();
-
-        // Draw hour lines
-        for (int h = 0; h < 24; h++) {
-            String label = String.format("%02d:00", h);
-            Label hourLabel = new Label(label);
-            hourLabel.setStyle("-fx-text-fill:#64748b; -fx-font-size:11;");
-            hourLabel.setLayoutX(10);
-            hourLabel.setLayoutY(h * HOUR_HEIGHT + 2);
-
-            Region line = new Region();
-            line.setPrefHeight(1);
-            line.setPrefWidth(2000);
-            line.setStyle("-fx-background-color:#334155;");
-            line.setLayoutX(60);
-            line.setLayoutY(h * HOUR_HEIGHT);
-
-            timelinePane.getChildren().addAll(hourLabel, line);
+        int seq = ++refreshSeq;
+        Mode shown = mode;
+        LocalDate from = rangeStart(anchor), to = rangeEnd(anchor);
+        updateDateLabel();
+
+        if (shown == Mode.MONTH) {
+            body.getChildren().setAll(monthCalendar);
+            YearMonth month = YearMonth.from(anchor);
+            AsyncDatabase.getEventsBetweenAsync(from.toString(), to.toString())
+                    .thenAcceptBothAsync(AsyncDatabase.getEventStatsPerDayAsync(from.toString(), to.toString()),
+                            (events, stats) -> {
+                                if (seq == refreshSeq) monthCalendar.show(month, events, stats);
+                            }, Platform::runLater);
+        } else {
+            body.getChildren().setAll(timelineBox);
+            List<LocalDate> days = new ArrayList<>();
+            for (LocalDate d = from; !d.isAfter(to); d = d.plusDays(1)) days.add(d);
+            showDayHeaders(shown == Mode.WEEK ? days : List.of());
+            timeline.setDays(days);
+            AsyncDatabase.getEventsBetweenAsync(from.toString(), to.toString()).thenAcceptAsync(events -> {
+                if (seq == refreshSeq) timeline.setEvents(events);
+            }, Platform::runLater);
         }
+        prefetch(shift(anchor, -1));
+        prefetch(shift(anchor, 1));
+    }
 
-        // Current time indicator
-        int nowMin = LocalTime.now().getHour() * 60 + LocalTime.now().getMinute();
-        double nowY = (nowMin / 60.0) * HOUR_HEIGHT;
-
-        Region nowLine = new Region();
-        nowLine.setPrefHeight(2);
-        nowLine.setPrefWidth(2000);
-        nowLine.setStyle("-fx-background-color:#ef4444;");
-        nowLine.setLayoutX(60);
-        nowLine.setLayoutY(nowY);
-
-        Label nowDot = new Label("\u25CF");
-        nowDot.setStyle("-fx-text-fill:#ef4444; -fx-font-size:12;");
-        nowDot.setLayoutX(52);
-        nowDot.setLayoutY(nowY - 7);
-
-        timelinePane.getChildren().addAll(nowLine, nowDot);
-
-        // Events
-        List<ScheduleEvent> events = DatabaseManager.getEventsForDate(today);
-        for (ScheduleEvent ev : events) {
-            double y = (ev.getStartMinute() / 60.0) * HOUR_HEIGHT;
-            double h = (ev.getDurationMinutes() / 60.0) * HOUR_HEIGHT;
-            h = Math.max(h, 20);
-
-            VBox block = new VBox(2);
-            block.setStyle("-fx-background-color:" + ev.getColor() + "cc;" +
-                    "-fx-background-radius:8; -fx-padding:6 10;");
-            block.setPrefHeight(h);
-            block.setPrefWidth(300);
-            block.setLayoutX(80);
-            block.setLayoutY(y);
-
-            Label evTitle = new Label(ev.getTitle());
-            evTitle.setStyle("-fx-text-fill:white; -fx-font-weight:bold; -fx-font-size:12;");
-
-            Label evTime = new Label(ev.getStartTime() + " — " + ev.getEndTime());
-            evTime.setStyle("-fx-text-fill:rgba(255,255,255,0.8); -fx-font-size:10;");
-
-            block.getChildren().addAll(evTitle, evTime);
-
-            // Right-click to delete
-            ContextMenu ctx = new ContextMenu();
-            MenuItem del = new MenuItem("Delete");
-            del.setOnAction(e -> {
-                DatabaseManager.deleteEvent(ev.getId());
-                app.showToast("Event deleted", false);
-                refresh();
-            });
-            ctx.getItems().add(del);
-            block.setOnContextMenuRequested(e -> ctx.show(block, e.getScreenX(), e.getScreenY()));
+    // Results are discarded; the reads only fill the event cache
+    private void prefetch(LocalDate day) {
+        String from = rangeStart(day).toString(), to = rangeEnd(day).toString();
+        AsyncDatabase.getEventsBetweenAsync(from, to);
+        if (mode == Mode.MONTH) AsyncDatabase.getEventStatsPerDayAsync(from, to);
+    }
+
+    private void updateDateLabel() {
+        LocalDate from = rangeStart(anchor);
+        dateLabel.setText(switch (mode) {
+            case DAY -> anchor.format(DAY_FMT);
+            case WEEK -> from.format(SHORT_FMT) + " — " + from.plusDays(6).format(SHORT_FMT) + ", " + from.getYear();
+            case MONTH -> anchor.format(MONTH_FMT);
+        });
+    }
 
-            timelinePane.getChildren().add(block);
+    private void showDayHeaders(List<LocalDate> days) {
+        dayHeaders.getChildren().clear();
+        LocalDate today = LocalDate.now();
+        for (LocalDate d : days) {
+            Label l = new Label(d.getDayOfWeek().getDisplayName(TextStyle.SHORT, Locale.ENGLISH) + " " + d.getDayOfMonth());
+            l.setMaxWidth(Double.MAX_VALUE);
+            l.setAlignment(Pos.CENTER);
+            l.setStyle("-fx-font-size:12; -fx-font-weight:bold; -fx-text-fill:"
+                    + (d.equals(today) ? "#ef4444" : "#94a3b8") + ";");
+            HBox.setHgrow(l, Priority.ALWAYS);
+            dayHeaders.getChildren().add(l);
         }
+        dayHeaders.setVisible(!days.isEmpty());
+        dayHeaders.setManaged(!days.isEmpty());
     }
 
     private void showEventDialog() {
@@ -152,6 +232,8 @@ public class ScheduleView extends VBox {
         TextField titleField = new TextField();
         titleField.setPromptText("Event title");
 
+        DatePicker datePicker = new DatePicker(anchor);
+
         // Time spinners
         Spinner<Integer> startH = new Spinner<>(0, 23, 9);
         startH.setPrefWidth(70);
@@ -196,24 +278,55 @@ public class ScheduleView extends VBox {
         grid.add(endM, 3, 2);
         grid.add(new Label("Color:"), 0, 3);
         grid.add(colorRow, 1, 3, 3, 1);
+        grid.add(new Label("Date:"), 0, 4);
+        grid.add(datePicker, 1, 4, 3, 1);
+
+        // Move the block to the first gap of its length at or after the chosen start
+        Button freeSlotBtn = new Button("Find free slot");
+        freeSlotBtn.getStyleClass().add("icon-button");
+        freeSlotBtn.setOnAction(e -> {
+            if (datePicker.getValue() == null) return;
+            int from = startH.getValue() * 60 + startM.getValue();
+            int length = Math.max(endH.getValue() * 60 + endM.getValue() - from, 15);
+            AsyncDatabase.getEventsForDateAsync(datePicker.getValue().toString()).thenAcceptAsync(events -> {
+                int slot = new EventLayout(events).findFreeSlot(length, from, 24 * 60);
+                if (slot < 0 || slot + length >= 24 * 60) {
+                    app.showToast("No free slot of " + length + " min left that day", false);
+                    return;
+                }
+                startH.getValueFactory().setValue(slot / 60);
+                startM.getValueFactory().setValue(slot % 60);
+                endH.getValueFactory().setValue((slot + length) / 60);
+                endM.getValueFactory().setValue((slot + length) % 60);
+            }, Platform::runLater);
+        });
+        grid.add(freeSlotBtn, 1, 5, 3, 1);
 
         dlg.getDialogPane().setContent(grid);
         dlg.getDialogPane().getButtonTypes().addAll(ButtonType.OK, ButtonType.CANCEL);
 
         dlg.setResultConverter(btn -> {
-            if (btn == ButtonType.OK && !titleField.getText().isBlank()) {
+            if (btn == ButtonType.OK && !titleField.getText().isBlank() && datePicker.getValue() != null) {
                 String st = String.format("%02d:%02d", startH.getValue(), startM.getValue());
                 String et = String.format("%02d:%02d", endH.getValue(), endM.getValue());
                 return new ScheduleEvent(titleField.getText(), st, et,
-                        selectedColor[0], LocalDate.now().toString());
+                        selectedColor[0], datePicker.getValue().toString());
             }
             return null;
         });
 
         dlg.showAndWait().ifPresent(ev -> {
-            DatabaseManager.addEvent(ev);
-            app.showToast("Event added!", true);
-            refresh();
+            AsyncDatabase.addEventAsync(ev)
+                    .thenCompose(id -> {
+                        ev.setId(id);
+                        return AsyncDatabase.getEventsForDateAsync(ev.getDate());
+                    })
+                    .thenAcceptAsync(events -> {
+                        List<ScheduleEvent> conflicts = new EventLayout(events).conflictsWith(ev);
+                        if (conflicts.isEmpty()) app.showToast("Event added!", true);
+                        else app.showToast("Event added — overlaps \"" + conflicts.get(0).getTitle() + "\""
+                                + (conflicts.size() > 1 ? " and " + (conflicts.size() - 1) + " more" : ""), false);
+                    }, Platform::runLater);
         });
     }
 }
\ No newline at end of file
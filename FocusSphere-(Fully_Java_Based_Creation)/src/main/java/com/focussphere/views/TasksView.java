@@ -1,34 +1,58 @@
 package com.focussphere.views;
 
 import com.focussphere.App;
-import com.focussphere.db.DatabaseManager;
+import com.focussphere.db.AsyncDatabase;
+import com.focussphere.db.ChangeBus;
+import com.focussphere.db.DataChange;
+import com.focussphere.db.TaskFilter;
+import com.focussphere.model.EpochTime;
 import com.focussphere.model.Task;
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
 import javafx.geometry.*;
 import javafx.scene.control.*;
 import javafx.scene.layout.*;
 
-import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 
 public class TasksView extends VBox {
 
+    private static final int PAGE_SIZE = 50;
+
+    // Same order as getTasksPage: pending first, then newest first
+    private static final Comparator<Task> LIST_ORDER = Comparator.comparing(Task::isCompleted)
+            .thenComparing(Task::getCreatedAt, Comparator.reverseOrder())
+            .thenComparing(Task::getId, Comparator.reverseOrder());
+
     private final App app;
     private TextField titleField;
     private DatePicker datePicker;
     private ComboBox<String> priorityBox;
     private ComboBox<String> filterBox;
-    private VBox taskListBox;
+    private ListView<Task> taskList;
     private Label statsLabel;
 
+    // Tasks loaded so far; the last one is the key for the next page
+    private final ObservableList<Task> tasks = FXCollections.observableArrayList();
+    private boolean hasMore, loadingMore;
+
     // Stat labels
     private Label completedCount, pendingCount, highCount, overdueCount;
 
+    // Guards against an older refresh finishing after a newer one
+    private int refreshSeq;
+    private boolean loading;
+
     public TasksView(App app) {
         this.app = app;
         setSpacing(16);
         setPadding(new Insets(24));
         getStyleClass().add("view-container");
         buildUI();
+        ChangeBus.subscribe(this::onChange, Platform::runLater);
     }
 
     private void buildUI() {
@@ -71,14 +95,16 @@ public class TasksView extends VBox {
         filterBox = new ComboBox<>();
         filterBox.getItems().addAll("All", "Active", "Completed");
         filterBox.setValue("All");
-        filterBox.setOnAction(e -> refresh());
+        filterBox.setOnAction(e -> {
+            tasks.clear();
+            refresh();
+        });
 
         Button clearDone = new Button("Clear Completed");
         clearDone.getStyleClass().add("danger-button-small");
         clearDone.setOnAction(e -> {
-            DatabaseManager.deleteCompletedTasks();
-            refresh();
-            app.showToast("Completed tasks cleared", true);
+            AsyncDatabase.deleteCompletedTasksAsync().thenRunAsync(
+                    () -> app.showToast("Completed tasks cleared", true), Platform::runLater);
         });
 
         HBox filterRow = new HBox(10, new Label("Filter:"), filterBox,
@@ -89,12 +115,14 @@ public class TasksView extends VBox {
                 }, clearDone);
         filterRow.setAlignment(Pos.CENTER_LEFT);
 
-        // Task list
-        taskListBox = new VBox(8);
-        ScrollPane scroll = new ScrollPane(taskListBox);
-        scroll.setFitToWidth(true);
-        scroll.getStyleClass().add("view-scroll");
-        VBox.setVgrow(scroll, Priority.ALWAYS);
+        // Task list: only the visible rows have nodes, and cells are reused while scrolling
+        Label emptyLabel = new Label("No tasks yet. Add one above!");
+        emptyLabel.setStyle("-fx-text-fill:#64748b; -fx-font-size:14; -fx-padding:30;");
+        taskList = new ListView<>(tasks);
+        taskList.getStyleClass().add("card-list");
+        taskList.setPlaceholder(emptyLabel);
+        taskList.setCellFactory(lv -> new TaskCell());
+        VBox.setVgrow(taskList, Priority.ALWAYS);
 
         // Stats row
         completedCount = new Label("0");
@@ -109,7 +137,7 @@ public class TasksView extends VBox {
                 createMiniStat("Overdue", overdueCount, "#ef4444"));
         statsRow.setAlignment(Pos.CENTER_LEFT);
 
-        getChildren().addAll(header, form, filterRow, scroll, statsRow);
+        getChildren().addAll(header, form, filterRow, taskList, statsRow);
     }
 
     private VBox createMiniStat(String label, Label value, String color) {
@@ -151,118 +179,186 @@ public class TasksView extends VBox {
         if (tags.length() > 0)
             t.setTags(tags.toString());
 
-        DatabaseManager.addTask(t);
         titleField.clear();
         datePicker.setValue(null);
         priorityBox.setValue("Medium");
-        app.showToast("Task added!", true);
-        refresh();
+        AsyncDatabase.addTaskAsync(t).thenRunAsync(() -> app.showToast("Task added!", true), Platform::runLater);
     }
 
     public void refresh() {
-        taskListBox.getChildren().clear();
-        List<Task> tasks = DatabaseManager.getAllTasks();
-        String filter = filterBox.getValue();
-
-        int total = tasks.size();
-        long done = tasks.stream().filter(Task::isCompleted).count();
-
-        for (Task t : tasks) {
-            if ("Active".equals(filter) && t.isCompleted())
-                continue;
-            if ("Completed".equals(filter) && !t.isCompleted())
-                continue;
-            taskListBox.getChildren().add(createTaskCard(t));
-        }
-
-        // Update stats
-        int pct = total > 0 ? (int) (done * 100 / total) : 0;
-        statsLabel.setText(pct + "% Done");
+        int seq = ++refreshSeq;
+        // Reload as many rows as are listed so scroll progress survives edits
+        int limit = Math.max(PAGE_SIZE, tasks.size());
+        loading = true;
+        AsyncDatabase.getTasksPageAsync(null, limit, currentFilter()).thenAcceptAsync(page -> {
+            if (seq == refreshSeq) {
+                loading = false;
+                loadingMore = false;
+                hasMore = page.size() == limit;
+                tasks.setAll(page);
+            }
+        }, Platform::runLater);
+        refreshStats();
+    }
 
-        completedCount.setText(String.valueOf(DatabaseManager.countCompletedTasks()));
-        pendingCount.setText(String.valueOf(DatabaseManager.countPendingTasks()));
-        highCount.setText(String.valueOf(DatabaseManager.countHighPriorityTasks()));
-        overdueCount.setText(String.valueOf(DatabaseManager.countOverdueTasks()));
+    private void refreshStats() {
+        AsyncDatabase.getDashboardSnapshotAsync().thenAcceptAsync(snap -> {
+            completedCount.setText(String.valueOf(snap.completedTasks()));
+            pendingCount.setText(String.valueOf(snap.pendingTasks()));
+            highCount.setText(String.valueOf(snap.highPriorityTasks()));
+            overdueCount.setText(String.valueOf(snap.overdueTasks()));
+
+            int total = snap.completedTasks() + snap.pendingTasks();
+            int pct = total > 0 ? snap.completedTasks() * 100 / total : 0;
+            statsLabel.setText(pct + "% Done");
+        }, Platform::runLater);
+    }
 
-        if (taskListBox.getChildren().isEmpty()) {
-            Label empty = new Label("No tasks yet. Add one above!");
-            empty.setStyle("-fx-text-fill:#64748b; -fx-font-size:14; -fx-padding:30;");
-            taskListBox.getChildren().add(empty);
+    // Patch the list for one committed change instead of reloading
+    private void onChange(DataChange change) {
+        if (!change.is(DataChange.Entity.TASK))
+            return;
+        // A reload in flight may have read the rows before this change
+        if (loading || change.kind() == DataChange.Kind.RESET) {
+            refresh();
+            return;
+        }
+        refreshStats();
+        if (change.kind() == DataChange.Kind.DELETED) {
+            tasks.removeIf(t -> t.getId() == change.id());
+            return;
         }
+        int seq = refreshSeq;
+        AsyncDatabase.getTaskAsync(change.id()).thenAcceptAsync(t -> {
+            if (seq != refreshSeq)
+                return;
+            tasks.removeIf(old -> old.getId() == change.id());
+            if (t != null)
+                insert(t);
+        }, Platform::runLater);
     }
 
-    private HBox createTaskCard(Task t) {
-        CheckBox cb = new CheckBox();
-        cb.setSelected(t.isCompleted());
-        cb.setOnAction(e -> {
-            DatabaseManager.updateTaskCompleted(t.getId(), cb.isSelected());
-            refresh();
-        });
+    private void insert(Task t) {
+        if (!currentFilter().includes(t.isCompleted()))
+            return;
+        int i = 0;
+        while (i < tasks.size() && LIST_ORDER.compare(tasks.get(i), t) < 0)
+            i++;
+        if (i == tasks.size() && hasMore)
+            return; // sorts into a page that is not loaded yet
+        tasks.add(i, t);
+    }
 
-        Label titleLbl = new Label(t.getTitle());
-        titleLbl.getStyleClass().add("task-title");
-        titleLbl.setMaxWidth(Double.MAX_VALUE);
-        HBox.setHgrow(titleLbl, Priority.ALWAYS);
-        if (t.isCompleted()) {
-            titleLbl.setStyle(titleLbl.getStyle() +
-                    "-fx-strikethrough:true; -fx-text-fill:#64748b;");
-        }
+    // Called as the last rows scroll into view
+    private void loadMore() {
+        if (tasks.isEmpty() || !hasMore || loadingMore)
+            return;
+        loadingMore = true;
+        int seq = refreshSeq; // a refresh in the meantime replaces the list
+        AsyncDatabase.getTasksPageAsync(tasks.get(tasks.size() - 1), PAGE_SIZE, currentFilter())
+                .thenAcceptAsync(page -> {
+                    if (seq != refreshSeq)
+                        return;
+                    loadingMore = false;
+                    hasMore = page.size() == PAGE_SIZE;
+                    tasks.addAll(page);
+                }, Platform::runLater);
+    }
 
-        HBox badges = new HBox(6);
-        badges.setAlignment(Pos.CENTER_RIGHT);
-
-        // Priority badge
-        String pColor = switch (t.getPriority()) {
-            case "High" -> "#ef4444";
-            case "Low" -> "#22c55e";
-            default -> "#f59e0b";
-        };
-        Label pBadge = new Label(t.getPriority());
-        pBadge.setStyle("-fx-background-color:" + pColor + "22; -fx-text-fill:" + pColor + ";" +
-                "-fx-padding:2 8; -fx-background-radius:10; -fx-font-size:11;");
-        badges.getChildren().add(pBadge);
-
-        // Due date badge
-        if (t.getDueDate() != null && !t.getDueDate().isBlank()) {
-            boolean overdue = !t.isCompleted() &&
-                    LocalDate.parse(t.getDueDate()).isBefore(LocalDate.now());
-            Label dBadge = new Label("\uD83D\uDCC5 " + t.getDueDate());
-            dBadge.setStyle("-fx-text-fill:" + (overdue ? "#ef4444" : "#94a3b8") +
-                    "; -fx-font-size:11; -fx-padding:2 6;");
-            badges.getChildren().add(dBadge);
-        }
+    private TaskFilter currentFilter() {
+        return TaskFilter.valueOf(filterBox.getValue().toUpperCase());
+    }
 
-        // Tags
-        if (t.getTags() != null && !t.getTags().isBlank()) {
-            for (String tag : t.getTags().split(",")) {
-                Label tBadge = new Label("#" + tag.trim());
-                tBadge.setStyle("-fx-background-color:#6366f122; -fx-text-fill:#818cf8;" +
-                        "-fx-padding:2 6; -fx-background-radius:8; -fx-font-size:10;");
-                badges.getChildren().add(tBadge);
-            }
+    /** One reusable task card; nodes are built once and rebound in updateItem. */
+    private class TaskCell extends ListCell<Task> {
+        private final CheckBox cb = new CheckBox();
+        private final Label titleLbl = new Label();
+        private final Label pBadge = new Label();
+        private final Label dBadge = new Label();
+        // Grown to the most tags any item has had, then reused
+        private final List<Label> tagBadges = new ArrayList<>();
+        private final HBox badges = new HBox(6);
+        private final HBox card;
+
+        TaskCell() {
+            titleLbl.getStyleClass().add("task-title");
+            titleLbl.setMaxWidth(Double.MAX_VALUE);
+            HBox.setHgrow(titleLbl, Priority.ALWAYS);
+            badges.setAlignment(Pos.CENTER_RIGHT);
+
+            cb.setOnAction(e -> AsyncDatabase.updateTaskCompletedAsync(getItem().getId(), cb.isSelected()));
+
+            // Action buttons
+            Button focusBtn = new Button("\u23F1");
+            focusBtn.getStyleClass().add("icon-button");
+            focusBtn.setTooltip(new Tooltip("Focus with Pomodoro"));
+            focusBtn.setOnAction(e -> app.startPomodoroWithTask(getItem().getTitle()));
+
+            Button delBtn = new Button("\uD83D\uDDD1");
+            delBtn.getStyleClass().add("icon-button-danger");
+            delBtn.setTooltip(new Tooltip("Delete"));
+            delBtn.setOnAction(e -> {
+                AsyncDatabase.deleteTaskAsync(getItem().getId()).thenRunAsync(
+                        () -> app.showToast("Task deleted", false), Platform::runLater);
+            });
+
+            card = new HBox(10, cb, titleLbl, badges, focusBtn, delBtn);
+            card.setAlignment(Pos.CENTER_LEFT);
+            card.getStyleClass().add("task-card");
+            card.setPadding(new Insets(12, 16, 12, 16));
         }
 
-        // Action buttons
-        Button focusBtn = new Button("\u23F1");
-        focusBtn.getStyleClass().add("icon-button");
-        focusBtn.setTooltip(new Tooltip("Focus with Pomodoro"));
-        focusBtn.setOnAction(e -> app.startPomodoroWithTask(t.getTitle()));
-
-        Button delBtn = new Button("\uD83D\uDDD1");
-        delBtn.getStyleClass().add("icon-button-danger");
-        delBtn.setTooltip(new Tooltip("Delete"));
-        delBtn.setOnAction(e -> {
-            DatabaseManager.deleteTask(t.getId());
-            app.showToast("Task deleted", false);
-            refresh();
-        });
-
-        HBox card = new HBox(10, cb, titleLbl, badges, focusBtn, delBtn);
-        card.setAlignment(Pos.CENTER_LEFT);
-        card.getStyleClass().add("task-card");
-        card.setPadding(new Insets(12, 16, 12, 16));
+        @Override
+        protected void updateItem(Task t, boolean empty) {
+            super.updateItem(t, empty);
+            if (empty || t == null) {
+                setGraphic(null);
+                return;
+            }
+            if (getIndex() >= tasks.size() - 1)
+                loadMore();
+
+            cb.setSelected(t.isCompleted());
+            titleLbl.setText(t.getTitle());
+            titleLbl.setStyle(t.isCompleted() ? "-fx-strikethrough:true; -fx-text-fill:#64748b;" : "");
+
+            // Priority badge
+            String pColor = switch (t.getPriority()) {
+                case "High" -> "#ef4444";
+                case "Low" -> "#22c55e";
+                default -> "#f59e0b";
+            };
+            pBadge.setText(t.getPriority());
+            pBadge.setStyle("-fx-background-color:" + pColor + "22; -fx-text-fill:" + pColor + ";" +
+                    "-fx-padding:2 8; -fx-background-radius:10; -fx-font-size:11;");
+            badges.getChildren().setAll(pBadge);
+
+            // Due date badge
+            if (t.getDueDate() != null && !t.getDueDate().isBlank()) {
+                boolean overdue = t.isOverdue(EpochTime.today());
+                dBadge.setText("\uD83D\uDCC5 " + t.getDueDate());
+                dBadge.setStyle("-fx-text-fill:" + (overdue ? "#ef4444" : "#94a3b8") +
+                        "; -fx-font-size:11; -fx-padding:2 6;");
+                badges.getChildren().add(dBadge);
+            }
 
-        return card;
+            // Tags
+            if (t.getTags() != null && !t.getTags().isBlank()) {
+                String[] tags = t.getTags().split(",");
+                for (int i = 0; i < tags.length; i++) {
+                    if (i == tagBadges.size()) {
+                        Label tBadge = new Label();
+                        tBadge.setStyle("-fx-background-color:#6366f122; -fx-text-fill:#818cf8;" +
+                                "-fx-padding:2 6; -fx-background-radius:8; -fx-font-size:10;");
+                        tagBadges.add(tBadge);
+                    }
+                    Label tBadge = tagBadges.get(i);
+                    tBadge.setText("#" + tags[i].trim());
+                    badges.getChildren().add(tBadge);
+                }
+            }
+            setGraphic(card);
+        }
     }
 
     public void focusInput() {
@@ -0,0 +1,130 @@
+package com.focussphere.components;
+
+import com.focussphere.model.ScheduleEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventLayoutTest {
+
+    private static ScheduleEvent event(String title, String start, String end) {
+        return new ScheduleEvent(title, start, end, "#000000", "2024-03-01");
+    }
+
+    @Test
+    void overlapIsHalfOpen() {
+        ScheduleEvent a = event("a", "09:00", "10:00");
+        EventLayout layout = new EventLayout(List.of(a));
+
+        assertEquals(List.of(a), layout.overlapping(9 * 60, 10 * 60));
+        assertEquals(List.of(a), layout.overlapping(10 * 60 - 1, 11 * 60));
+        assertTrue(layout.overlapping(10 * 60, 11 * 60).isEmpty(), "range starting at the end");
+        assertTrue(layout.overlapping(8 * 60, 9 * 60).isEmpty(), "range ending at the start");
+        assertTrue(layout.overlapping(9 * 60 + 30, 9 * 60 + 30).isEmpty(), "empty range");
+    }
+
+    @Test
+    void backToBackEventsDoNotConflict() {
+        ScheduleEvent a = event("a", "09:00", "10:00");
+        ScheduleEvent b = event("b", "10:00", "11:00");
+        ScheduleEvent c = event("c", "10:30", "11:30");
+        EventLayout layout = new EventLayout(List.of(a, b, c));
+
+        assertTrue(layout.conflictsWith(a).isEmpty());
+        assertEquals(List.of(c), layout.conflictsWith(b));
+        assertEquals(List.of(b), layout.conflictsWith(c));
+    }
+
+    @Test
+    void zeroLengthEventsOverlapNothing() {
+        ScheduleEvent a = event("a", "09:00", "09:00");
+        ScheduleEvent b = event("b", "08:00", "12:00");
+        EventLayout layout = new EventLayout(List.of(a, b));
+
+        assertEquals(List.of(b), layout.overlapping(9 * 60 - 10, 9 * 60 + 10));
+        assertTrue(layout.conflictsWith(b).isEmpty());
+    }
+
+    @Test
+    void eventWithoutTimesIsDrawnAsDefaultBlock() {
+        ScheduleEvent untimed = event("untimed", null, null);
+        EventLayout layout = new EventLayout(List.of(untimed));
+
+        assertEquals(0, untimed.getDurationMinutes());
+        assertEquals(EventLayout.DEFAULT_BLOCK_MINUTES, EventLayout.blockMinutes(untimed));
+        assertEquals(List.of(untimed), layout.overlapping(EventLayout.DEFAULT_BLOCK_MINUTES - 1, 24 * 60));
+        assertTrue(layout.overlapping(EventLayout.DEFAULT_BLOCK_MINUTES, 24 * 60).isEmpty());
+    }
+
+    @Test
+    void overlappingEventsShareColumns() {
+        ScheduleEvent a = event("a", "09:00", "11:00");
+        ScheduleEvent b = event("b", "09:30", "10:00");
+        ScheduleEvent c = event("c", "10:00", "10:30");
+        ScheduleEvent d = event("d", "13:00", "14:00");
+        EventLayout layout = new EventLayout(List.of(d, c, b, a));
+
+        assertEquals(new EventLayout.Placement(0, 2), layout.placement(a));
+        assertEquals(new EventLayout.Placement(1, 2), layout.placement(b));
+        assertEquals(new EventLayout.Placement(1, 2), layout.placement(c), "reuses the column b freed");
+        assertEquals(new EventLayout.Placement(0, 1), layout.placement(d));
+    }
+
+    @Test
+    void findFreeSlotSkipsBusyTime() {
+        EventLayout layout = new EventLayout(List.of(
+                event("a", "09:00", "10:00"),
+                event("b", "10:30", "12:00"),
+                event("c", "11:00", "11:30"),
+                event("zero", "12:15", "12:15")));
+
+        assertEquals(8 * 60, layout.findFreeSlot(30, 8 * 60, 18 * 60));
+        assertEquals(10 * 60, layout.findFreeSlot(30, 9 * 60, 18 * 60));
+        assertEquals(12 * 60, layout.findFreeSlot(45, 9 * 60, 18 * 60), "gap before b is too short");
+        assertEquals(12 * 60, layout.findFreeSlot(60, 9 * 60 + 30, 13 * 60), "zero-length events take no time");
+        assertEquals(-1, layout.findFreeSlot(90, 9 * 60, 13 * 60));
+        assertEquals(-1, layout.findFreeSlot(30, 9 * 60, 9 * 60 + 45));
+    }
+
+    @Test
+    void findFreeSlotOnEmptyDay() {
+        EventLayout layout = new EventLayout(List.of());
+
+        assertEquals(8 * 60, layout.findFreeSlot(60, 8 * 60, 9 * 60));
+        assertEquals(-1, layout.findFreeSlot(61, 8 * 60, 9 * 60));
+        assertTrue(layout.overlapping(0, 24 * 60).isEmpty());
+    }
+
+    @Test
+    void overlappingMatchesLinearScan() {
+        Random random = new Random(42);
+        List<ScheduleEvent> events = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            int start = random.nextInt(22 * 60);
+            int end = start + random.nextInt(120);
+            events.add(event("e" + i, time(start), time(Math.min(end, 23 * 60 + 59))));
+        }
+        EventLayout layout = new EventLayout(events);
+
+        for (int q = 0; q < 500; q++) {
+            int from = random.nextInt(24 * 60);
+            int to = from + 1 + random.nextInt(180);
+            List<ScheduleEvent> expected = new ArrayList<>();
+            for (ScheduleEvent ev : events) {
+                int s = ev.getStartMinute(), e = s + ev.getDurationMinutes();
+                if (s < to && e > from && e > s) expected.add(ev);
+            }
+            List<ScheduleEvent> actual = layout.overlapping(from, to);
+            assertEquals(expected.size(), actual.size(), "[" + from + ", " + to + ")");
+            assertTrue(actual.containsAll(expected));
+        }
+    }
+
+    private static String time(int minute) {
+        return String.format("%02d:%02d", minute / 60, minute % 60);
+    }
+}
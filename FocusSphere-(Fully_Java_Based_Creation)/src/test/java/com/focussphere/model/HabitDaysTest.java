@@ -0,0 +1,146 @@
+package com.focussphere.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HabitDaysTest {
+
+    private static HabitDays range(long from, long to) {
+        HabitDays d = new HabitDays();
+        for (long day = from; day <= to; day++) d.set(day, true);
+        return d;
+    }
+
+    @Test
+    void setAndClearDays() {
+        HabitDays d = new HabitDays();
+        assertTrue(d.isEmpty());
+        d.set(100, true);
+        d.set(-5, true);
+        assertTrue(d.contains(100));
+        assertTrue(d.contains(-5));
+        assertTrue(d.contains(LocalDate.ofEpochDay(100)));
+        assertFalse(d.contains(99));
+        assertFalse(d.contains(100 + 64));
+
+        d.set(100, false);
+        d.set(5000, false); // outside the stored range
+        assertFalse(d.contains(100));
+        assertFalse(d.isEmpty());
+        d.set(-5, false);
+        assertTrue(d.isEmpty());
+    }
+
+    @Test
+    void streakCrossesWordBoundaries() {
+        HabitDays d = range(60, 200); // spans words 0 to 3
+        assertEquals(141, d.currentStreak(200));
+        assertEquals(5, d.currentStreak(64), "ends just after a word boundary");
+        assertEquals(4, d.currentStreak(63), "ends just before a word boundary");
+        assertEquals(0, d.currentStreak(201));
+        assertEquals(141, d.longestStreak());
+    }
+
+    @Test
+    void streakReachingTheFirstStoredWord() {
+        HabitDays d = range(128, 140); // first stored word starts on day 128
+        assertEquals(13, d.currentStreak(140));
+        assertEquals(1, d.currentStreak(128));
+    }
+
+    @Test
+    void streakOutsideTheStoredWords() {
+        HabitDays d = range(128, 140);
+        assertEquals(0, d.currentStreak(10), "before the first word");
+        assertEquals(0, d.currentStreak(1000), "after the last word");
+        assertEquals(0, new HabitDays().currentStreak(0));
+        assertEquals(0, new HabitDays().longestStreak());
+    }
+
+    @Test
+    void streakAcrossNegativeEpochDays() {
+        HabitDays d = range(-70, 3);
+        assertEquals(74, d.currentStreak(3));
+        assertEquals(6, d.currentStreak(-65));
+        assertEquals(74, d.longestStreak());
+    }
+
+    @Test
+    void longestStreakPicksTheBestRun() {
+        HabitDays d = range(0, 9);
+        for (long day = 50; day <= 140; day++) d.set(day, true); // crosses two word boundaries
+        d.set(300, true);
+        assertEquals(91, d.longestStreak());
+
+        HabitDays full = range(64, 191); // two whole words
+        assertEquals(128, full.longestStreak());
+    }
+
+    @Test
+    void countHonoursPartialWords() {
+        HabitDays d = range(60, 200);
+        assertEquals(141, d.count(0, 1000));
+        assertEquals(4, d.count(60, 63));
+        assertEquals(11, d.count(190, 250));
+        assertEquals(1, d.count(128, 128));
+        assertEquals(0, d.count(201, 300));
+        assertEquals(0, d.count(10, 5));
+        assertEquals(0.5, range(0, 4).rate(0, 9));
+    }
+
+    @Test
+    void bytesRoundTripAndTrimZeroWords() {
+        HabitDays d = range(60, 200);
+        d.set(-300, true);
+        d.set(-300, false); // leaves zero words at the front
+        HabitDays back = HabitDays.fromBytes(d.toBytes());
+        assertEquals(4 + 8 * 4, d.toBytes().length);
+        for (long day = -400; day < 400; day++) assertEquals(d.contains(day), back.contains(day), "day " + day);
+        assertEquals(d.longestStreak(), back.longestStreak());
+        assertArrayEquals(d.toBytes(), back.toBytes());
+    }
+
+    @Test
+    void emptyAndMissingBytes() {
+        assertTrue(HabitDays.fromBytes(null).isEmpty());
+        assertTrue(HabitDays.fromBytes(new byte[0]).isEmpty());
+        assertTrue(HabitDays.fromBytes(new HabitDays().toBytes()).isEmpty());
+    }
+
+    @Test
+    void copyIsIndependent() {
+        HabitDays d = range(0, 3);
+        HabitDays c = d.copy();
+        c.set(2, false);
+        assertTrue(d.contains(2));
+        assertFalse(c.contains(2));
+    }
+
+    @Test
+    void randomDaysMatchDayByDayScan() {
+        Random random = new Random(11);
+        boolean[] done = new boolean[600];
+        HabitDays d = new HabitDays();
+        for (int i = 0; i < 900; i++) {
+            int day = random.nextInt(done.length);
+            boolean on = random.nextInt(4) != 0;
+            done[day] = on;
+            d.set(day - 300L, on);
+        }
+        int best = 0, run = 0;
+        for (boolean b : done) {
+            run = b ? run + 1 : 0;
+            best = Math.max(best, run);
+        }
+        assertEquals(best, d.longestStreak());
+        for (int today = 0; today < done.length; today++) {
+            int streak = 0;
+            for (int k = today; k >= 0 && done[k]; k--) streak++;
+            assertEquals(streak, d.currentStreak(today - 300L), "today " + today);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.focussphere.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TextStatsTest {
+
+    // Replace [from, to) of text with inserted, updating stats the way the editor does
+    private static String edit(TextStats stats, String text, int from, int to, String inserted) {
+        char before = from > 0 ? text.charAt(from - 1) : ' ';
+        char after = to < text.length() ? text.charAt(to) : ' ';
+        stats.apply(before, text.substring(from, to), inserted, after);
+        return text.substring(0, from) + inserted + text.substring(to);
+    }
+
+    private static void assertCounts(String text, TextStats stats) {
+        TextStats fresh = TextStats.of(text);
+        assertEquals(fresh.words(), stats.words(), "words in \"" + text + "\"");
+        assertEquals(fresh.characters(), stats.characters(), "characters");
+        assertEquals(fresh.lines(), stats.lines(), "lines");
+    }
+
+    @Test
+    void countsMatchSplitOnWhitespace() {
+        TextStats s = TextStats.of("  one two\tthree\nfour  ");
+        assertEquals(4, s.words());
+        assertEquals(22, s.characters());
+        assertEquals(2, s.lines());
+
+        TextStats empty = TextStats.of("");
+        assertEquals(0, empty.words());
+        assertEquals(1, empty.lines());
+        assertEquals(0, empty.readingMinutes());
+    }
+
+    @Test
+    void spaceInsertedInsideWordSplitsIt() {
+        String text = "hello world";
+        TextStats s = TextStats.of(text);
+        text = edit(s, text, 3, 3, " ");
+        assertEquals("hel lo world", text);
+        assertEquals(3, s.words());
+        assertCounts(text, s);
+    }
+
+    @Test
+    void deletingSpaceJoinsWords() {
+        String text = "hello world";
+        TextStats s = TextStats.of(text);
+        text = edit(s, text, 5, 6, "");
+        assertEquals(1, s.words());
+        assertCounts(text, s);
+    }
+
+    @Test
+    void typingNextToAWordExtendsIt() {
+        String text = "word";
+        TextStats s = TextStats.of(text);
+        text = edit(s, text, 4, 4, "s");
+        text = edit(s, text, 0, 0, "sword");
+        assertEquals(1, s.words());
+        assertCounts(text, s);
+    }
+
+    @Test
+    void replacingAcrossWordsAndLines() {
+        String text = "alpha beta\ngamma delta";
+        TextStats s = TextStats.of(text);
+        text = edit(s, text, 8, 14, "X Y\nZ");
+        assertEquals("alpha beX Y\nZma delta", text);
+        assertCounts(text, s);
+    }
+
+    @Test
+    void randomEditsMatchRecount() {
+        Random random = new Random(7);
+        String alphabet = "ab \n\t";
+        String text = "";
+        TextStats s = TextStats.of(text);
+        for (int i = 0; i < 2000; i++) {
+            int from = text.isEmpty() ? 0 : random.nextInt(text.length() + 1);
+            int to = from + random.nextInt(Math.min(4, text.length() - from) + 1);
+            StringBuilder inserted = new StringBuilder();
+            for (int k = random.nextInt(4); k > 0; k--) inserted.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            text = edit(s, text, from, to, inserted.toString());
+            assertCounts(text, s);
+        }
+    }
+}